@@ -0,0 +1,71 @@
+USE bingo;
+
+-- Semilla del mazo de balotas de cada juego.
+ALTER TABLE bingo.game ADD COLUMN seed BIGINT NULL AFTER update_date;
+
+-- Números del tablero empaquetados en una sola columna de 25 bytes, en orden de filas (B1, I1, N1, G1, O1, B2, ... O5).
+ALTER TABLE bingo.board ADD COLUMN cells BINARY(25) NULL AFTER id_gamer;
+UPDATE bingo.board SET cells = CHAR(
+  number_b1, number_i1, IFNULL(number_n1, 0), number_g1, number_o1,
+  number_b2, number_i2, IFNULL(number_n2, 0), number_g2, number_o2,
+  number_b3, number_i3, IFNULL(number_n3, 0), number_g3, number_o3,
+  number_b4, number_i4, IFNULL(number_n4, 0), number_g4, number_o4,
+  number_b5, number_i5, IFNULL(number_n5, 0), number_g5, number_o5
+  USING binary);
+ALTER TABLE bingo.board MODIFY cells BINARY(25) NOT NULL;
+-- Las columnas anteriores se conservan y se eliminan en el paso posterior del final de este archivo;
+-- mientras tanto aceptan NULL, porque los tableros nuevos solo se guardan en cells.
+ALTER TABLE bingo.board
+  MODIFY number_b1 INT NULL, MODIFY number_i1 INT NULL, MODIFY number_g1 INT NULL, MODIFY number_o1 INT NULL,
+  MODIFY number_b2 INT NULL, MODIFY number_i2 INT NULL, MODIFY number_g2 INT NULL, MODIFY number_o2 INT NULL,
+  MODIFY number_b3 INT NULL, MODIFY number_i3 INT NULL, MODIFY number_g3 INT NULL, MODIFY number_o3 INT NULL,
+  MODIFY number_b4 INT NULL, MODIFY number_i4 INT NULL, MODIFY number_g4 INT NULL, MODIFY number_o4 INT NULL,
+  MODIFY number_b5 INT NULL, MODIFY number_i5 INT NULL, MODIFY number_g5 INT NULL, MODIFY number_o5 INT NULL;
+
+-- IDs de los tableros asignados por bloques para poder insertarlos en lote, y juego para el que se generó cada tablero.
+CREATE TABLE IF NOT EXISTS bingo.id_generator(
+  gen_name VARCHAR(45) NOT NULL,
+  gen_value BIGINT NOT NULL,
+  PRIMARY KEY (gen_name))
+ENGINE = InnoDB;
+-- El valor inicial deja un bloque completo (allocationSize = 50) por encima del mayor ID existente.
+INSERT INTO bingo.id_generator (gen_name, gen_value)
+SELECT 'board', COALESCE(MAX(boa_id), 0) + 51 FROM bingo.board;
+ALTER TABLE bingo.board MODIFY id_gamer INT NULL;
+ALTER TABLE bingo.board ADD COLUMN gam_id INT NULL AFTER id_gamer;
+ALTER TABLE bingo.board ADD INDEX fk_board_game1_idx (gam_id ASC) VISIBLE;
+
+-- Posición de cada balota dentro de su juego, para entregar solo las balotas desde una posición dada.
+ALTER TABLE bingo.move ADD COLUMN mov_seq INT NULL AFTER mov_number;
+UPDATE bingo.move m
+  JOIN (SELECT mov_id, ROW_NUMBER() OVER (PARTITION BY gam_id ORDER BY mov_id) AS seq FROM bingo.move) s
+    ON s.mov_id = m.mov_id
+  SET m.mov_seq = s.seq;
+ALTER TABLE bingo.move ADD INDEX move_game_seq_idx (gam_id ASC, mov_seq ASC) VISIBLE;
+
+-- Usuario único de cada jugador, para resolver el jugador por su usuario con un índice.
+-- Los usuarios repetidos, salvo el más antiguo, se renombran con su ID antes de crear el índice.
+UPDATE bingo.gamer g
+  JOIN (SELECT id_gamer, ROW_NUMBER() OVER (PARTITION BY user ORDER BY id_gamer) AS n FROM bingo.gamer) d
+    ON d.id_gamer = g.id_gamer
+  SET g.user = CONCAT(LEFT(g.user, 34), '#', g.id_gamer)
+  WHERE d.n > 1;
+ALTER TABLE bingo.gamer ADD UNIQUE INDEX gamer_user_uq (user ASC) VISIBLE;
+-- Si la tabla se creó con la columna user UNIQUE, su índice anterior queda repetido y se puede eliminar.
+-- ALTER TABLE bingo.gamer DROP INDEX user;
+
+-- Paso posterior: se ejecuta a mano en un despliegue siguiente, una vez verificada la columna cells.
+-- La verificación debe retornar 0 filas antes de eliminar las columnas anteriores.
+-- SELECT boa_id FROM bingo.board WHERE number_b1 IS NOT NULL AND cells <> CHAR(
+--   number_b1, number_i1, IFNULL(number_n1, 0), number_g1, number_o1,
+--   number_b2, number_i2, IFNULL(number_n2, 0), number_g2, number_o2,
+--   number_b3, number_i3, IFNULL(number_n3, 0), number_g3, number_o3,
+--   number_b4, number_i4, IFNULL(number_n4, 0), number_g4, number_o4,
+--   number_b5, number_i5, IFNULL(number_n5, 0), number_g5, number_o5
+--   USING binary);
+-- ALTER TABLE bingo.board
+--   DROP COLUMN number_b1, DROP COLUMN number_i1, DROP COLUMN number_n1, DROP COLUMN number_g1, DROP COLUMN number_o1,
+--   DROP COLUMN number_b2, DROP COLUMN number_i2, DROP COLUMN number_n2, DROP COLUMN number_g2, DROP COLUMN number_o2,
+--   DROP COLUMN number_b3, DROP COLUMN number_i3, DROP COLUMN number_n3, DROP COLUMN number_g3, DROP COLUMN number_o3,
+--   DROP COLUMN number_b4, DROP COLUMN number_i4, DROP COLUMN number_n4, DROP COLUMN number_g4, DROP COLUMN number_o4,
+--   DROP COLUMN number_b5, DROP COLUMN number_i5, DROP COLUMN number_n5, DROP COLUMN number_g5, DROP COLUMN number_o5;
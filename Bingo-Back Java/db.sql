@@ -14,6 +14,7 @@ CREATE TABLE IF NOT EXISTS bingo.game(
   statu_id INT NOT NULL,
   creation_date DATETIME(0) NULL,
   update_date DATETIME(0) NULL,
+  seed BIGINT NULL,
   PRIMARY KEY (gam_id),
   INDEX fk_game_status1_idx (statu_id ASC) VISIBLE,
   CONSTRAINT fk_game_status1
@@ -23,46 +24,31 @@ CREATE TABLE IF NOT EXISTS bingo.game(
     ON UPDATE NO ACTION)
 ENGINE = InnoDB;
 
+CREATE TABLE IF NOT EXISTS bingo.id_generator(
+  gen_name VARCHAR(45) NOT NULL,
+  gen_value BIGINT NOT NULL,
+  PRIMARY KEY (gen_name))
+ENGINE = InnoDB;
+
 CREATE TABLE IF NOT EXISTS bingo.board (
   boa_id INT NOT NULL AUTO_INCREMENT,
-  id_gamer INT NOT NULL,
-  number_b1 INT NOT NULL,
-  number_i1 INT NOT NULL,
-  number_n1 INT  NULL,
-  number_g1 INT NOT NULL,
-  number_o1 INT NOT NULL,
-    number_b2 INT NOT NULL,
-  number_i2 INT NOT NULL,
-  number_n2 INT  NULL,
-  number_g2 INT NOT NULL,
-  number_o2 INT NOT NULL,
-    number_b3 INT NOT NULL,
-  number_i3 INT NOT NULL,
-  number_n3 INT  NULL,
-  number_g3 INT NOT NULL,
-  number_o3 INT NOT NULL,
-    number_b4 INT NOT NULL,
-  number_i4 INT NOT NULL,
-  number_n4 INT  NULL,
-  number_g4 INT NOT NULL,
-  number_o4 INT NOT NULL,
-    number_b5 INT NOT NULL,
-  number_i5 INT NOT NULL,
-  number_n5 INT  NULL,
-  number_g5 INT NOT NULL,
-  number_o5 INT NOT NULL,
-  PRIMARY KEY (boa_id))
+  id_gamer INT NULL,
+  gam_id INT NULL,
+  cells BINARY(25) NOT NULL,
+  PRIMARY KEY (boa_id),
+  INDEX fk_board_game1_idx (gam_id ASC) VISIBLE)
 ENGINE = InnoDB;
 
 CREATE TABLE IF NOT EXISTS bingo.gamer(
   id_gamer INT NOT NULL AUTO_INCREMENT,
-  user VARCHAR(45) NOT NULL UNIQUE,
+  user VARCHAR(45) NOT NULL,
   statu_id INT NOT NULL,
   gam_id INT NULL,
   boa_id INT NULL,
   creation_date DATETIME(0) NULL,
   update_date DATETIME(0) NULL,
   PRIMARY KEY (id_gamer),
+  UNIQUE INDEX gamer_user_uq (user ASC) VISIBLE,
   INDEX fk_gamer_status1_idx (statu_id ASC) VISIBLE,
   INDEX fk_gamer_board1_idx (boa_id ASC) VISIBLE,
   INDEX fk_gamer_game1_idx (gam_id ASC) VISIBLE,
@@ -88,8 +74,10 @@ CREATE TABLE IF NOT EXISTS bingo.move(
   gam_id INT NOT NULL,
   mov_letter VARCHAR(1) NULL,
   mov_number INT NULL,
+  mov_seq INT NULL,
   PRIMARY KEY (mov_id),
   INDEX fk_move_game1_idx (gam_id ASC) VISIBLE,
+  INDEX move_game_seq_idx (gam_id ASC, mov_seq ASC) VISIBLE,
   CONSTRAINT fk_move_game1
     FOREIGN KEY (gam_id)
     REFERENCES bingo.game (gam_id)
@@ -1,23 +1,35 @@
 package com.sofka.bingo.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sofka.bingo.domain.Board;
 
+import com.sofka.bingo.service.BoardPoolService;
 import com.sofka.bingo.service.BoardService;
 import com.sofka.bingo.utility.CreateBoard;
+import com.sofka.bingo.utility.CursorPage;
+import com.sofka.bingo.utility.NdjsonWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Clase BoardController contiene los controladores que se encargarán de recibir, orquestar
@@ -37,58 +49,111 @@ public class BoardController {
     @Autowired
     private BoardService boardService;
 
+    /**
+     * Servicio para la reserva de tableros pregenerados
+     */
+    @Autowired
+    private BoardPoolService boardPoolService;
+
+    /**
+     * Cantidad máxima de tableros que se pueden generar en una sola solicitud
+     */
+    @Value("${bingo.boards.max-per-request:10000}")
+    private int maxBoardsPerRequest;
+
+    /**
+     * Mapeador JSON con el que se escriben los listados en formato NDJSON
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Cantidad máxima de registros por página en los listados
+     */
+    @Value("${bingo.pagination.max-limit:1000}")
+    private int maxPageSize;
+
     /**
      * Manejo del código HTTP que se responde en las API
      */
     private HttpStatus httpStatus = HttpStatus.OK;
 
     /**
-     * Obtener la lista de todos los tableros disponibles.
+     * Obtener una página de tableros, ordenados por ID. Cada página empieza después del cursor dado;
+     * si la página está llena, el encabezado {@code X-Next-After} trae el cursor de la siguiente.
+     * @param after el ID del último tablero de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de tableros de la página
      * @return ResponseEntity con una lista de objetos Board y un código de estado HTTP
-     *         200 si se encontraron los tableros, o un código de estado HTTP 404 si no
-     *         se encontraron.
+     *         200 si se encontraron los tableros, 400 si el límite está fuera de rango, o un código
+     *         de estado HTTP 404 si no se encontraron.
      */
     @GetMapping(path = "/board/all")
-    public ResponseEntity<List<Board>> boardList() {
+    public ResponseEntity<List<Board>> boardList(@RequestParam(name = "after", defaultValue = "0") Long after,
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
         try {
-            // Obtener la lista de tableros usando el servicio correspondiente.
-            List<Board> boards = boardService.getBoardList();
-
-            // Devolver una respuesta con los tableros obtenidos y un código de estado HTTP 200.
-            return new ResponseEntity<>(boards, httpStatus);
+            if (limit < 1 || limit > maxPageSize) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            List<Board> boards = boardService.getBoardPage(after, limit);
+            return new ResponseEntity<>(boards, CursorPage.headers(boards, limit, Board::getIdBoard), httpStatus);
         } catch (Exception exc) {
-            // Imprimir la excepción en caso de que ocurra algún error.
-            System.out.println(exc);
-
-            // Devolver una respuesta con un código de estado HTTP 404.
+            log.error("Error en GET /board/all", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
     /**
-     * Obtiene un tablero específico según el ID proporcionado.
+     * Obtener los tableros en formato NDJSON, un tablero por línea, ordenados por ID. Los tableros se escriben
+     * a medida que se leen de la base de datos, por lo que la memoria usada no depende del total de tableros.
+     * @param after el ID a partir del cual se listan los tableros, 0 para listarlos todos
+     * @return ResponseEntity con el flujo de tableros y un código de estado HTTP 200.
+     */
+    @GetMapping(path = "/board/all", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> boardListStream(@RequestParam(name = "after", defaultValue = "0") Long after) {
+        StreamingResponseBody body = out -> boardService.streamBoards(after, new NdjsonWriter(objectMapper, out));
+        return new ResponseEntity<>(body, httpStatus);
+    }
+
+    /**
+     * Obtiene un tablero específico según el ID proporcionado. La respuesta lleva un ETag fuerte;
+     * si el encabezado If-None-Match coincide con el ETag guardado en memoria, se responde 304
+     * sin consultar la base de datos.
      *
      * @param id El ID del tablero a buscar.
+     * @param ifNoneMatch Los ETag que el cliente ya tiene, si los envía.
      * @return ResponseEntity con un objeto Board y un código de estado HTTP 200 si se
-     *         encontró el tablero, o un código de estado HTTP 404 si no se encontró.
+     *         encontró el tablero, un código de estado HTTP 304 si el cliente ya tiene el tablero,
+     *         o un código de estado HTTP 404 si no se encontró.
      */
     @GetMapping(path = "/board/get/{id}")
-    public ResponseEntity<Board> getOneBoard(@PathVariable("id") Long id) {
+    public ResponseEntity<Board> getOneBoard(@PathVariable("id") Long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            // Verificar si el tablero existe en la base de datos.
-            if (!boardService.existsByIdBoard(id)) {
-                // Devolver una respuesta con un código de estado HTTP 404 si no existe.
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            // Responder 304 si el cliente ya tiene la versión guardada en memoria del tablero.
+            Optional<String> knownEtag = boardService.findEtag(id);
+            if (knownEtag.isPresent() && matchesEtag(ifNoneMatch, knownEtag.get())) {
+                return notModified(knownEtag.get());
             }
 
             // Obtener el tablero usando el servicio correspondiente.
-            Board board = boardService.findBoard(id).get();
+            Optional<Board> board = boardService.findBoard(id);
+            if (board.isEmpty()) {
+                // Devolver una respuesta con un código de estado HTTP 404 si no existe.
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            String etag = boardService.etag(board.get());
+            if (matchesEtag(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
 
-            // Devolver una respuesta con el tablero encontrado y un código de estado HTTP 200.
-            return new ResponseEntity<>(board, httpStatus);
+            // Devolver una respuesta con el tablero encontrado, su ETag y un código de estado HTTP 200.
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(etag);
+            headers.setCacheControl(CacheControl.noCache());
+            return new ResponseEntity<>(board.get(), headers, httpStatus);
         } catch (Exception exc) {
-            // Imprimir la excepción en caso de que ocurra algún error.
-            System.out.println(exc);
+            // Registrar la excepción en caso de que ocurra algún error.
+            log.error("Error en GET /board/get/{id}", exc);
 
             // Devolver una respuesta con un código de estado HTTP 404.
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -96,16 +161,23 @@ public class BoardController {
     }
 
     /**
-     * Inserta un nuevo tablero en la base de datos con los datos proporcionados. También
-     * genera las filas del tablero usando el servicio CreateBoard.
+     * Asigna un tablero al jugador indicado. El tablero se toma de la reserva de tableros pregenerados;
+     * si la reserva está vacía, se generan las filas del tablero usando el servicio CreateBoard y se inserta.
+     * Si el jugador ya está en un juego, el tablero no repite ningún otro tablero del juego.
      *
-     * @param board El objeto Board a insertar en la base de datos.
-     * @return ResponseEntity con el objeto Board insertado y un código de estado HTTP 201.
+     * @param board El objeto Board con el ID del jugador.
+     * @return ResponseEntity con el objeto Board asignado y un código de estado HTTP 201.
      *         Si hay algún error, se devuelve un código de estado HTTP 404.
      */
     @PostMapping(path = "/board/save")
     public ResponseEntity<Board> insertBoard(@RequestBody Board board) {
         try {
+            // Tomar un tablero de la reserva, si hay alguno disponible.
+            Board pooled = boardPoolService.claim(board.getGamerId(), boardService.findGameOfGamer(board.getGamerId()));
+            if (pooled != null) {
+                return new ResponseEntity<>(pooled, HttpStatus.CREATED);
+            }
+
             // Generar las filas del tablero usando el servicio CreateBoard.
             CreateBoard createBoard = new CreateBoard();
             List<Integer> column1 = createBoard.newColumn(1);
@@ -120,13 +192,54 @@ public class BoardController {
             // Devolver una respuesta con el objeto Board insertado y un código de estado HTTP 201.
             return new ResponseEntity<>(board, HttpStatus.CREATED);
         } catch (Exception exc) {
-            // Imprimir la excepción en caso de que ocurra algún error.
-            System.out.println(exc);
+            // Registrar la excepción en caso de que ocurra algún error.
+            log.error("Error en POST /board/save", exc);
 
             // Devolver una respuesta con un código de estado HTTP 404.
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
+    /**
+     * Obtiene el nivel de llenado y los contadores de la reserva de tableros pregenerados.
+     *
+     * @return ResponseEntity con las métricas de la reserva y un código de estado HTTP 200.
+     */
+    @GetMapping(path = "/board/pool")
+    public ResponseEntity<Map<String, Object>> boardPool() {
+        try {
+            return new ResponseEntity<>(boardPoolService.getStats(), httpStatus);
+        } catch (Exception exc) {
+            log.error("Error en GET /board/pool", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Genera y guarda en una sola transacción la cantidad indicada de tableros para un juego.
+     *
+     * @param id El ID del juego para el que se generan los tableros.
+     * @param count La cantidad de tableros a generar.
+     * @return ResponseEntity con la lista de tableros creados y un código de estado HTTP 201,
+     *         un código de estado HTTP 400 si la cantidad no es válida, o un código de estado HTTP 404
+     *         si no se encontró el juego.
+     */
+    @PostMapping(path = "/game/{id}/boards")
+    public ResponseEntity<List<Board>> insertBoards(@PathVariable("id") Long id, @RequestParam("count") int count) {
+        try {
+            if (count < 1 || count > maxBoardsPerRequest) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            List<Board> boards = boardService.postBoards(id, count);
+            if (boards == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(boards, HttpStatus.CREATED);
+        } catch (Exception exc) {
+            log.error("Error en POST /game/{id}/boards", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
     /**
      * Actualiza un tablero existente en la base de datos según el ID proporcionado.
      * @param board El objeto Board que contiene los nuevos datos del tablero.
@@ -141,8 +254,8 @@ public class BoardController {
             // Devolver una respuesta con el tablero actualizado y un código de estado HTTP 200.
             return new ResponseEntity<>(board, httpStatus);
         }catch (Exception exc) {
-            // Imprimir la excepción en caso de que ocurra algún error.
-            System.out.println(exc);
+            // Registrar la excepción en caso de que ocurra algún error.
+            log.error("Error en PUT /board/update/{id}", exc);
 
             // Devolver una respuesta con un código de estado HTTP 404.
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -165,13 +278,42 @@ public class BoardController {
             // Devolver una respuesta con el objeto Board eliminado y un código de estado HTTP 200.
             return new ResponseEntity<>(board, httpStatus);
         } catch (Exception exc) {
-            // Imprimir la excepción en caso de que ocurra algún error.
-            System.out.println(exc);
+            // Registrar la excepción en caso de que ocurra algún error.
+            log.error("Error en DELETE /board/delete/{id}", exc);
 
             // Devolver una respuesta con un código de estado HTTP 404.
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
-}
+    /**
+     * Indica si el encabezado If-None-Match contiene el ETag dado.
+     * @param ifNoneMatch el valor del encabezado, con uno o varios ETag separados por comas, o "*"
+     * @param etag el ETag del tablero
+     * @return verdadero si el cliente ya tiene esa versión del tablero
+     */
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    /**
+     * Construye la respuesta 304 de un tablero que el cliente ya tiene.
+     * @param etag el ETag del tablero
+     * @return ResponseEntity sin cuerpo con el ETag y un código de estado HTTP 304
+     */
+    private ResponseEntity<Board> notModified(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setCacheControl(CacheControl.noCache());
+        return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+    }
+}
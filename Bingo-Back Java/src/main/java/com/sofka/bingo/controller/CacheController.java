@@ -0,0 +1,53 @@
+package com.sofka.bingo.controller;
+
+import com.sofka.bingo.service.CacheStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Clase CacheController contiene el controlador que responde las estadísticas de la caché de segundo nivel.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ *
+ */
+@Slf4j
+@RestController
+public class CacheController {
+
+    /**
+     * Servicio para las estadísticas de la caché
+     */
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    /**
+     * Manejo del código HTTP que se responde en las API
+     */
+    private HttpStatus httpStatus = HttpStatus.OK;
+
+    /**
+     * Obtiene los aciertos, fallos y tasa de aciertos de la caché de segundo nivel, en total y por región.
+     *
+     * @return ResponseEntity con las estadísticas de la caché y un código de estado HTTP 200,
+     *         o un código de estado HTTP 404 si las estadísticas no están activas (perfil "cache-stats")
+     *         o hay algún error.
+     */
+    @GetMapping(path = "/cache/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> cacheStats() {
+        try {
+            if (!cacheStatsService.isEnabled()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(cacheStatsService.getStats(), httpStatus);
+        } catch (Exception exc) {
+            log.error("Error en GET /cache/stats", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
@@ -1,12 +1,32 @@
 package com.sofka.bingo.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sofka.bingo.domain.Draw;
 import com.sofka.bingo.domain.Game;
+import com.sofka.bingo.domain.GameSummary;
+import com.sofka.bingo.domain.Gamer;
+import com.sofka.bingo.domain.StatusType;
+import com.sofka.bingo.service.ClaimArbitrationService;
+import com.sofka.bingo.service.DrawFeedService;
+import com.sofka.bingo.service.GameEventStreamService;
+import com.sofka.bingo.service.GameLoopService;
+import com.sofka.bingo.service.GameMetricsService;
 import com.sofka.bingo.service.GameService;
-import com.sofka.bingo.service.StatusService;
+import com.sofka.bingo.service.GamerService;
+import com.sofka.bingo.service.PresenceService;
+import com.sofka.bingo.service.StatusRegistry;
+import com.sofka.bingo.service.WinVerificationService;
+import com.sofka.bingo.service.WinnerDetectionService;
+import com.sofka.bingo.utility.ClaimArbiter;
+import com.sofka.bingo.utility.CursorPage;
+import com.sofka.bingo.utility.NdjsonWriter;
+import com.sofka.bingo.utility.PresenceRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,9 +36,17 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Clase GameController contiene los controladores que se encargarán de recibir, orquestar
@@ -38,10 +66,82 @@ public class GameController {
     private GameService gameService;
 
     /**
-     * Servicio para el manejo de los estados (status)
+     * Registro en memoria de los estados (status)
      */
     @Autowired
-    private StatusService statusService;
+    private StatusRegistry statusRegistry;
+
+    /**
+     * Servicio para el manejo del jugador (gamer)
+     */
+    @Autowired
+    private GamerService gamerService;
+
+    /**
+     * Servicio que lleva en memoria los jugadores en línea
+     */
+    @Autowired
+    private PresenceService presenceService;
+
+    /**
+     * Servicio para la verificación de las reclamaciones de ganador
+     */
+    @Autowired
+    private WinVerificationService winVerificationService;
+
+    /**
+     * Servicio para la detección de ganadores en cada balota
+     */
+    @Autowired
+    private WinnerDetectionService winnerDetectionService;
+
+    /**
+     * Servicio para las balotas que se perdieron los clientes que se reconectan
+     */
+    @Autowired
+    private DrawFeedService drawFeedService;
+
+    /**
+     * Servicio para los eventos de los juegos por Server-Sent Events
+     */
+    @Autowired
+    private GameEventStreamService gameEventStreamService;
+
+    /**
+     * Servicio que decide el ganador entre reclamaciones simultáneas
+     */
+    @Autowired
+    private ClaimArbitrationService claimArbitrationService;
+
+    /**
+     * Servicio para las métricas de los caminos calientes del juego
+     */
+    @Autowired
+    private GameMetricsService gameMetricsService;
+
+    /**
+     * Servicio para el ciclo de juego (conteo, balotas y evaluación)
+     */
+    @Autowired
+    private GameLoopService gameLoopService;
+
+    /**
+     * Mapeador JSON con el que se escriben los listados en formato NDJSON
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Cantidad máxima de registros por página en los listados
+     */
+    @Value("${bingo.pagination.max-limit:1000}")
+    private int maxPageSize;
+
+    /**
+     * Tiempo máximo que una reclamación espera el registro de los ganadores, en milisegundos
+     */
+    @Value("${bingo.claims.settle-timeout-ms:5000}")
+    private long settleTimeoutMs;
 
     /**
      * Manejo del código HTTP que se responde en las API
@@ -49,24 +149,44 @@ public class GameController {
     private HttpStatus httpStatus = HttpStatus.OK;
 
     /**
-     * Obtener la lista de todos los juegos disponibles.
-     * @return ResponseEntity con una lista de objetos Game y un código de estado HTTP
-     *         200 si se encontraron los tableros, o un código de estado HTTP 404 si no
-     *         se encontraron.
+     * Obtener una página de juegos, ordenados por ID. Cada página empieza después del cursor dado;
+     * si la página está llena, el encabezado {@code X-Next-After} trae el cursor de la siguiente.
+     * @param after el ID del último juego de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de juegos de la página
+     * @return ResponseEntity con una lista de resúmenes de juegos y un código de estado HTTP
+     *         200 si se encontraron los juegos, 400 si el límite está fuera de rango, o un código
+     *         de estado HTTP 404 si no se encontraron.
      */
     @GetMapping(path = "/game/all")
-    public ResponseEntity<List<Game>> gameList(){
+    public ResponseEntity<List<GameSummary>> gameList(@RequestParam(name = "after", defaultValue = "0") Long after,
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
         try {
-            List<Game> games =  gameService.getGameList();
-            return new ResponseEntity<>(games, httpStatus);
-        }catch (Exception exc){
-            System.out.println(exc);
+            if (limit < 1 || limit > maxPageSize) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            List<GameSummary> games = gameService.getGamePage(after, limit);
+            return new ResponseEntity<>(games, CursorPage.headers(games, limit, GameSummary::idGame), httpStatus);
+        } catch (Exception exc) {
+            log.error("Error en GET /game/all", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
     /**
-     * Obtiene un juego específico según el ID proporcionado.
+     * Obtener los resúmenes de los juegos en formato NDJSON, un juego por línea, ordenados por ID. Los juegos se escriben
+     * a medida que se leen de la base de datos, por lo que la memoria usada no depende del total de juegos.
+     * @param after el ID a partir del cual se listan los juegos, 0 para listarlos todos
+     * @return ResponseEntity con el flujo de juegos y un código de estado HTTP 200.
+     */
+    @GetMapping(path = "/game/all", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> gameListStream(@RequestParam(name = "after", defaultValue = "0") Long after) {
+        StreamingResponseBody body = out -> gameService.streamGames(after, new NdjsonWriter(objectMapper, out));
+        return new ResponseEntity<>(body, httpStatus);
+    }
+
+    /**
+     * Obtiene un juego específico según el ID proporcionado, con sus jugadores y jugadas.
+     * Para consultar solo el estado del juego se debe usar el resumen.
      *
      * @param id El ID del juego a buscar.
      * @return ResponseEntity con un objeto GAME y un código de estado HTTP 200 si se
@@ -75,13 +195,100 @@ public class GameController {
     @GetMapping(path = "/game/get/{id}")
     public ResponseEntity<Game> getOneGame(@PathVariable("id") Long id){
         try {
-            if (!gameService.existsByIdGame(id)) {
+            Optional<Game> game = gameService.findFullGame(id);
+            if (game.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
-            Game game = gameService.findGame(id).get();
-            return new ResponseEntity<>(game, httpStatus);
+            return new ResponseEntity<>(game.get(), httpStatus);
+        }catch (Exception exc){
+            log.error("Error en GET /game/get/{id}", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Obtiene el resumen de un juego: estado, ganador, cantidad de jugadores y de jugadas, y la última balota.
+     * Se resuelve con una sola consulta, sin cargar los jugadores ni las jugadas del juego.
+     *
+     * @param id El ID del juego.
+     * @return ResponseEntity con el resumen del juego y un código de estado HTTP 200 si se
+     *         encontró el juego, o un código de estado HTTP 404 si no se encontró.
+     */
+    @GetMapping(path = "/game/{id}/summary")
+    public ResponseEntity<GameSummary> gameSummary(@PathVariable("id") Long id){
+        try {
+            Optional<GameSummary> summary = gameService.findGameSummary(id);
+            if (summary.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(summary.get(), httpStatus);
+        }catch (Exception exc){
+            log.error("Error en GET /game/{id}/summary", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Obtiene las balotas de un juego que salieron después de la posición dada, para los clientes
+     * que se unen tarde o se reconectan. Solo se envían las balotas que le faltan al cliente.
+     *
+     * @param id El ID del juego.
+     * @param since La posición de la última balota que tiene el cliente, 0 si no tiene ninguna.
+     * @return ResponseEntity con la lista de balotas en orden de posición y un código de estado HTTP 200,
+     *         un código de estado HTTP 400 si la posición es negativa, o un código de estado HTTP 404 si hay un error.
+     */
+    @GetMapping(path = "/game/{id}/moves")
+    public ResponseEntity<List<Draw>> movesSince(@PathVariable("id") Long id,
+                                                 @RequestParam(value = "since", defaultValue = "0") int since){
+        try {
+            if (since < 0) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            return new ResponseEntity<>(drawFeedService.since(id, since), httpStatus);
+        }catch (Exception exc){
+            log.error("Error en GET /game/{id}/moves", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Obtiene los jugadores en línea de un juego con su estado y su último latido.
+     * Se responde desde la memoria, sin consultar la base de datos.
+     *
+     * @param id El ID del juego.
+     * @return ResponseEntity con la lista de jugadores en línea y un código de estado HTTP 200.
+     */
+    @GetMapping(path = "/game/{id}/presence")
+    public ResponseEntity<List<PresenceRegistry.Presence>> gamePresence(@PathVariable("id") Long id){
+        try {
+            return new ResponseEntity<>(presenceService.roster(id), httpStatus);
+        }catch (Exception exc){
+            log.error("Error en GET /game/{id}/presence", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Abre una conexión Server-Sent Events con los eventos de un juego: resumen, balotas, estados,
+     * lista de jugadores y ganadores. Un cliente que se reconecta envía {@code Last-Event-ID}
+     * con la posición de la última balota que recibió y solo recibe las balotas siguientes.
+     *
+     * @param id El ID del juego.
+     * @param lastEventId La posición de la última balota que recibió el cliente, 0 si no tiene ninguna.
+     * @return ResponseEntity con la conexión y un código de estado HTTP 200 si se encontró el juego,
+     *         o un código de estado HTTP 404 si no se encontró.
+     */
+    @GetMapping(path = "/game/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> gameEvents(@PathVariable("id") Long id,
+                                                 @RequestHeader(value = "Last-Event-ID", defaultValue = "0") int lastEventId){
+        try {
+            Optional<SseEmitter> emitter = gameEventStreamService.subscribe(id, Math.max(0, lastEventId));
+            if (emitter.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(emitter.get(), httpStatus);
         }catch (Exception exc){
-            System.out.println(exc);
+            log.error("Error en GET /game/{id}/events", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -96,10 +303,10 @@ public class GameController {
     public ResponseEntity<Game> insertGame(){
         try{
             Game game = new Game();
-            game = gameService.postGame(game,statusService.findStatus(2L).get());
+            game = gameService.postGame(game,statusRegistry.get(StatusType.GAME_WAITING));
             return new ResponseEntity<>(game, HttpStatus.CREATED);
         }catch (Exception exc){
-            System.out.println(exc);
+            log.error("Error en POST /game/save", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -116,7 +323,7 @@ public class GameController {
             gameService.putGame(id, game);
             return new ResponseEntity<>(game, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en PUT /game/update/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -139,8 +346,8 @@ public class GameController {
             // Devolver una respuesta con el juego actualizado y un código de estado HTTP 200.
             return new ResponseEntity<>(game, httpStatus);
         } catch (Exception exc) {
-            // Imprimir la excepción en caso de que ocurra algún error.
-            System.out.println(exc);
+            // Registrar la excepción en caso de que ocurra algún error.
+            log.error("Error en PATCH /game/update/status/{id}", exc);
 
             // Devolver una respuesta con un código de estado HTTP 404.
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -161,7 +368,141 @@ public class GameController {
             gameService.updateWinnerG(id, game);
             return new ResponseEntity<>(game, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en PATCH /game/update/winner/{id}", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Inicia el ciclo de un juego en el servidor: conteo regresivo, sacada de balotas y evaluación de reclamaciones.
+     * El juego solo se vuelve a consultar cuando no se pudo iniciar, para distinguir si no existe.
+     *
+     * @param id El ID del juego a iniciar.
+     * @return ResponseEntity con el resumen del juego y un código de estado HTTP 200 si se inició el ciclo,
+     *         un código de estado HTTP 409 si el juego no está "En espera" o ya tenía un ciclo activo,
+     *         o un código de estado HTTP 404 si no se encontró el juego.
+     */
+    @PostMapping(path = "/game/{id}/start")
+    public ResponseEntity<GameSummary> startGame(@PathVariable("id") Long id){
+        try {
+            if (!gameLoopService.start(id)) {
+                HttpStatus status = gameService.findGameSummary(id).isPresent() ? HttpStatus.CONFLICT : HttpStatus.NOT_FOUND;
+                return new ResponseEntity<>(status);
+            }
+            Optional<GameSummary> summary = gameService.findGameSummary(id);
+            if (summary.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(summary.get(), httpStatus);
+        }catch (Exception exc) {
+            log.error("Error en POST /game/{id}/start", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Une un jugador a un juego en una sola solicitud: busca el jugador por su usuario o lo crea, le asigna
+     * un tablero, lo relaciona con el juego y actualiza su estado, todo en una transacción.
+     * Reemplaza las llamadas a "/gamer/get/user", "/gamer/save", "/board/save", "/gamer/update/board",
+     * "/gamer/update/status" y "/gamer/update/game".
+     *
+     * @param gamer El objeto Gamer con el nombre de usuario que entra al juego.
+     * @param id El ID del juego.
+     * @return ResponseEntity con el objeto Gamer y su tablero, y un código de estado HTTP 200 si el jugador
+     *         entró al juego, un código de estado HTTP 400 si no se envió el usuario, un código de estado HTTP 409
+     *         si el juego no está "En espera", o un código de estado HTTP 404 si no se encontró el juego.
+     */
+    @PostMapping(path = "/game/{id}/join")
+    public ResponseEntity<Gamer> joinGame(@RequestBody Gamer gamer, @PathVariable("id") Long id){
+        try {
+            if (gamer.getUser() == null || gamer.getUser().isBlank()) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            Gamer joined = gamerService.joinGame(id, gamer.getUser());
+            if (joined == null) {
+                HttpStatus status = gameService.findGameSummary(id).isPresent() ? HttpStatus.CONFLICT : HttpStatus.NOT_FOUND;
+                return new ResponseEntity<>(status);
+            }
+            return new ResponseEntity<>(joined, httpStatus);
+        }catch (Exception exc) {
+            log.error("Error en POST /game/{id}/join", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Verifica en el servidor la reclamación "¡Gané!" de un jugador dentro de un juego.
+     * Si el tablero del jugador tiene una fila, columna o diagonal completa con las balotas sacadas,
+     * la reclamación entra al arbitraje: la primera reclamación válida gana y las que llegan dentro
+     * de la ventana de empate quedan como ganadores empatados. La respuesta espera a que los ganadores
+     * queden registrados. Un ganador, también uno detectado por el servidor, que reclama después de
+     * finalizado el juego recibe el resumen del juego con su ganador.
+     * Solo una reclamación válida pausa la sacada de balotas, para que reclamaciones falsas no detengan el juego.
+     *
+     * @param gamer El objeto Gamer con el nombre de usuario que reclama.
+     * @param id El ID del juego en el que se reclama.
+     * @return ResponseEntity con el resumen del juego y un código de estado HTTP 200 si la reclamación es válida
+     *         y ganó o empató, un código de estado HTTP 403 si no es válida, un código de estado HTTP 409
+     *         si llegó después de cerrado el juego o la ventana de empate y no está entre los ganadores,
+     *         un código de estado HTTP 404 si no se encontró el juego o el jugador dentro del juego,
+     *         un código de estado HTTP 503 si los ganadores no se registraron a tiempo, o un código de estado
+     *         HTTP 500 si falló su registro.
+     */
+    @PostMapping(path = "/game/{id}/claim")
+    public ResponseEntity<GameSummary> claimGame(@RequestBody Gamer gamer, @PathVariable("id") Long id){
+        try {
+            Optional<GameSummary> summary = gameService.findGameSummary(id);
+            if (summary.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            Optional<Gamer> claimant = gamerService.findGamerInGame(id, gamer.getUser());
+            if (claimant.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            boolean finished = StatusType.GAME_FINISHED.is(summary.get().idStatus());
+            if (finished && !claimArbitrationService.isWinner(id, gamer.getUser())) {
+                boolean recorded = claimant.get().getStatusGamer() != null
+                        && StatusType.GAMER_WINNER.is(claimant.get().getStatusGamer().getIdStatus());
+                return recorded ? new ResponseEntity<>(summary.get(), httpStatus) : new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+            if (!finished) {
+                if (!winVerificationService.verifyClaim(id, claimant.get().getBoard())) {
+                    gameMetricsService.recordClaim(GameMetricsService.ClaimResult.INVALID);
+                    return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+                }
+                gameLoopService.pauseForClaim(id);
+                if (claimArbitrationService.claim(id, gamer.getUser()) == ClaimArbiter.Outcome.LATE) {
+                    return new ResponseEntity<>(HttpStatus.CONFLICT);
+                }
+            }
+            try {
+                claimArbitrationService.settled(id).get(settleTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException exc) {
+                log.error("Error en POST /game/{id}/claim: los ganadores no se registraron a tiempo", exc);
+                return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+            } catch (ExecutionException exc) {
+                log.error("Error en POST /game/{id}/claim: falló el registro de los ganadores", exc);
+                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            return new ResponseEntity<>(gameService.findGameSummary(id).orElse(summary.get()), httpStatus);
+        }catch (Exception exc) {
+            log.error("Error en POST /game/{id}/claim", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Obtiene los ganadores detectados por el servidor en un juego, en el orden en que completaron su línea.
+     *
+     * @param id El ID del juego.
+     * @return ResponseEntity con la lista de nombres de usuario ganadores y un código de estado HTTP 200.
+     */
+    @GetMapping(path = "/game/{id}/winners")
+    public ResponseEntity<List<String>> gameWinners(@PathVariable("id") Long id){
+        try {
+            return new ResponseEntity<>(winnerDetectionService.winners(id), httpStatus);
+        }catch (Exception exc) {
+            log.error("Error en GET /game/{id}/winners", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -179,7 +520,7 @@ public class GameController {
             gameService.deleteGame(id);
             return new ResponseEntity<>(id, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en DELETE /game/delete/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -1,8 +1,12 @@
 package com.sofka.bingo.controller;
 
 import com.sofka.bingo.domain.Gamer;
+import com.sofka.bingo.domain.Seat;
+import com.sofka.bingo.domain.StatusType;
 import com.sofka.bingo.service.GamerService;
-import com.sofka.bingo.service.StatusService;
+import com.sofka.bingo.service.MatchmakingService;
+import com.sofka.bingo.service.PresenceService;
+import com.sofka.bingo.service.StatusRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
@@ -16,9 +20,16 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sofka.bingo.utility.CursorPage;
+import com.sofka.bingo.utility.NdjsonWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Clase GamerController contiene los controladores que se encargarán de recibir, orquestar
@@ -38,10 +49,34 @@ public class GamerController {
     private GamerService gamerService;
 
     /**
-     * Servicio para el manejo de los estados (status)
+     * Servicio del lobby que sienta a los jugadores en las salas abiertas
      */
     @Autowired
-    private StatusService statusService;
+    private MatchmakingService matchmakingService;
+
+    /**
+     * Servicio que lleva en memoria los jugadores en línea
+     */
+    @Autowired
+    private PresenceService presenceService;
+
+    /**
+     * Registro en memoria de los estados (status)
+     */
+    @Autowired
+    private StatusRegistry statusRegistry;
+
+    /**
+     * Mapeador JSON con el que se escriben los listados en formato NDJSON
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Cantidad máxima de registros por página en los listados
+     */
+    @Value("${bingo.pagination.max-limit:1000}")
+    private int maxPageSize;
 
     /**
      * Manejo del código HTTP que se responde en las API
@@ -49,22 +84,41 @@ public class GamerController {
     private HttpStatus httpStatus = HttpStatus.OK;
 
     /**
-     * Obtener la lista de todos los jugadores registrados.
+     * Obtener una página de jugadores/as, ordenados por ID. Cada página empieza después del cursor dado;
+     * si la página está llena, el encabezado {@code X-Next-After} trae el cursor de la siguiente.
+     * @param after el ID del último jugador de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de jugadores/as de la página
      * @return ResponseEntity con una lista de objetos Gamer y un código de estado HTTP
-     *         200 si se encontraron los jugadores/as, o un código de estado HTTP 404 si no
-     *         se encontraron.
+     *         200 si se encontraron los jugadores/as, 400 si el límite está fuera de rango, o un código
+     *         de estado HTTP 404 si no se encontraron.
      */
     @GetMapping(path = "/gamer/all")
-    public ResponseEntity<List<Gamer>> gamerList(){
+    public ResponseEntity<List<Gamer>> gamerList(@RequestParam(name = "after", defaultValue = "0") Long after,
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
         try {
-            List<Gamer> gamers =  gamerService.getGamerList();
-            return new ResponseEntity<>(gamers, httpStatus);
-        }catch (Exception exc){
-            System.out.println(exc);
+            if (limit < 1 || limit > maxPageSize) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            List<Gamer> gamers = gamerService.getGamerPage(after, limit);
+            return new ResponseEntity<>(gamers, CursorPage.headers(gamers, limit, Gamer::getIdGamer), httpStatus);
+        } catch (Exception exc) {
+            log.error("Error en GET /gamer/all", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
+    /**
+     * Obtener los jugadores en formato NDJSON, un jugador por línea, ordenados por ID. Los jugadores se escriben
+     * a medida que se leen de la base de datos, por lo que la memoria usada no depende del total de jugadores.
+     * @param after el ID a partir del cual se listan los jugadores, 0 para listarlos todos
+     * @return ResponseEntity con el flujo de jugadores y un código de estado HTTP 200.
+     */
+    @GetMapping(path = "/gamer/all", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> gamerListStream(@RequestParam(name = "after", defaultValue = "0") Long after) {
+        StreamingResponseBody body = out -> gamerService.streamGamers(after, new NdjsonWriter(objectMapper, out));
+        return new ResponseEntity<>(body, httpStatus);
+    }
+
     /**
      * Obtiene un jugador específico según el ID proporcionado.
      *
@@ -75,13 +129,13 @@ public class GamerController {
     @GetMapping(path = "/gamer/get/{id}")
     public ResponseEntity<Gamer> getOneGamer(@PathVariable("id") Long id){
         try {
-            if (!gamerService.existsByIdGamer(id)) {
+            Optional<Gamer> gamer = gamerService.findGamer(id);
+            if (gamer.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
-            Gamer gamer = gamerService.findGamer(id).get();
-            return new ResponseEntity<>(gamer, httpStatus);
+            return new ResponseEntity<>(gamer.get(), httpStatus);
         }catch (Exception exc){
-            System.out.println(exc);
+            log.error("Error en GET /gamer/get/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -97,10 +151,10 @@ public class GamerController {
     public ResponseEntity<Gamer> getOneGamerByUser(@PathVariable("user") String user){
         try {
             Gamer gamer = gamerService.existUser(user);
-            log.info("este es el gamer"+ gamer);
+            log.debug("Jugador encontrado: {}", gamer);
             return new ResponseEntity<>(gamer, httpStatus);
         }catch (Exception exc){
-            System.out.println(exc);
+            log.error("Error en GET /gamer/get/user/{user}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -110,16 +164,20 @@ public class GamerController {
      * La ruta de acceso es "/gamer/save".
      * @param gamer El objeto Gamer que representa al jugador a agregar.
      * @return Un objeto ResponseEntity que contiene el jugador agregado y el estado HTTP correspondiente.
+     *         Si el nombre de usuario ya existe, se devuelve un objeto ResponseEntity con un estado HTTP CONFLICT.
      *         Si ocurre algún error, se devuelve un objeto ResponseEntity con un estado HTTP NOT_FOUND.
      */
     @PostMapping(path = "/gamer/save")
     public ResponseEntity<Gamer> insertGamer(@RequestBody Gamer gamer){
         try{
+            if (gamerService.existUser(gamer.getUser()) != null) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
             log.info("Jugador nuevo: {}", gamer);
-            gamerService.postGamer(gamer,statusService.findStatus(7L).get());
+            gamerService.postGamer(gamer,statusRegistry.get(StatusType.GAMER_WAITING));
             return new ResponseEntity<>(gamer, HttpStatus.CREATED);
         }catch (Exception exc){
-            System.out.println(exc);
+            log.error("Error en POST /gamer/save", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -138,7 +196,7 @@ public class GamerController {
             gamerService.putGamer(id, gamer);
             return new ResponseEntity<>(gamer, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en PUT /gamer/update/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -157,7 +215,7 @@ public class GamerController {
             gamerService.updateStatusGamerS(id, gamer);
             return new ResponseEntity<>(gamer, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en PATCH /gamer/update/status/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -176,7 +234,7 @@ public class GamerController {
             gamerService.updateBoardGamerS(id, gamer);
             return new ResponseEntity<>(gamer, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en PATCH /gamer/update/board/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -195,7 +253,46 @@ public class GamerController {
             gamerService.updateGameGamerS(id, gamer);
             return new ResponseEntity<>(gamer, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en PATCH /gamer/update/game/{id}", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Función encargada de registrar el latido de un jugador en línea a través de una solicitud HTTP PATCH.
+     * La ruta de acceso es "/gamer/{id}/heartbeat", donde {id} es el ID del jugador. El latido solo se registra
+     * en memoria; un jugador que deja de latir pasa a "Desconectado".
+     * @param id El ID del jugador.
+     * @return Un objeto ResponseEntity con el estado HTTP NO_CONTENT si el jugador está en línea, o con
+     *         el estado HTTP NOT_FOUND si venció y debe volver a conectarse actualizando su estado.
+     */
+    @PatchMapping(path = "/gamer/{id}/heartbeat")
+    public ResponseEntity<Void> heartbeatGamer(@PathVariable("id") Long id){
+        try {
+            if (!presenceService.heartbeat(id)) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }catch (Exception exc) {
+            log.error("Error en PATCH /gamer/{id}/heartbeat", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Función encargada de sentar a un jugador en una sala abierta del lobby a través de una solicitud HTTP PATCH.
+     * La ruta de acceso es "/gamer/seat/{id}", donde {id} es el ID del jugador. Solo se crea un juego nuevo
+     * cuando todas las salas abiertas están llenas.
+     * @param id El ID del jugador a sentar.
+     * @return Un objeto ResponseEntity que contiene el puesto del jugador y el estado HTTP correspondiente.
+     *         Si ocurre algún error, se devuelve un objeto ResponseEntity con un estado HTTP NOT_FOUND.
+     */
+    @PatchMapping(path = "/gamer/seat/{id}")
+    public ResponseEntity<Seat> seatGamer(@PathVariable("id") Long id){
+        try {
+            return new ResponseEntity<>(matchmakingService.seat(id), httpStatus);
+        }catch (Exception exc) {
+            log.error("Error en PATCH /gamer/seat/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -212,7 +309,7 @@ public class GamerController {
             gamerService.deleteGamer(id);
             return new ResponseEntity<>(id, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en DELETE /gamer/delete/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -1,11 +1,14 @@
 package com.sofka.bingo.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sofka.bingo.domain.Game;
 import com.sofka.bingo.domain.Move;
 import com.sofka.bingo.service.MoveService;
-import com.sofka.bingo.utility.CreateMove;
+import com.sofka.bingo.utility.CursorPage;
+import com.sofka.bingo.utility.NdjsonWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,10 +19,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Clase MoveController contiene los controladores que se encargarán de recibir, orquestar
@@ -39,6 +45,18 @@ public class MoveController {
     private MoveService moveService;
 
 
+    /**
+     * Mapeador JSON con el que se escriben los listados en formato NDJSON
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Cantidad máxima de registros por página en los listados
+     */
+    @Value("${bingo.pagination.max-limit:1000}")
+    private int maxPageSize;
+
     /**
      * Manejo del código HTTP que se responde en las API
      */
@@ -46,22 +64,41 @@ public class MoveController {
 
 
     /**
-     * Obtener la lista de las jugadas registradas.
+     * Obtener una página de jugadas, ordenadas por ID. Cada página empieza después del cursor dado;
+     * si la página está llena, el encabezado {@code X-Next-After} trae el cursor de la siguiente.
+     * @param after el ID de la última jugada de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de jugadas de la página
      * @return ResponseEntity con una lista de objetos Move y un código de estado HTTP
-     *         200 si se encontraron las jugadas, o un código de estado HTTP 404 si no
-     *         se encontraron.
+     *         200 si se encontraron las jugadas, 400 si el límite está fuera de rango, o un código
+     *         de estado HTTP 404 si no se encontraron.
      */
     @GetMapping(path = "/move/all")
-    public ResponseEntity<List<Move>> moveList(){
+    public ResponseEntity<List<Move>> moveList(@RequestParam(name = "after", defaultValue = "0") Long after,
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
         try {
-            List<Move> moves =  moveService.getMoveList();
-            return new ResponseEntity<>(moves, httpStatus);
-        }catch (Exception exc){
-            System.out.println(exc);
+            if (limit < 1 || limit > maxPageSize) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            List<Move> moves = moveService.getMovePage(after, limit);
+            return new ResponseEntity<>(moves, CursorPage.headers(moves, limit, Move::getIdMove), httpStatus);
+        } catch (Exception exc) {
+            log.error("Error en GET /move/all", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
+    /**
+     * Obtener las jugadas en formato NDJSON, una jugada por línea, ordenadas por ID. Las jugadas se escriben
+     * a medida que se leen de la base de datos, por lo que la memoria usada no depende del total de jugadas.
+     * @param after el ID a partir del cual se listan las jugadas, 0 para listarlas todas
+     * @return ResponseEntity con el flujo de jugadas y un código de estado HTTP 200.
+     */
+    @GetMapping(path = "/move/all", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> moveListStream(@RequestParam(name = "after", defaultValue = "0") Long after) {
+        StreamingResponseBody body = out -> moveService.streamMoves(after, new NdjsonWriter(objectMapper, out));
+        return new ResponseEntity<>(body, httpStatus);
+    }
+
     /**
      * Obtiene una jugada específica según el ID proporcionado.
      *
@@ -72,13 +109,13 @@ public class MoveController {
     @GetMapping(path = "/move/get/{id}")
     public ResponseEntity<Move> getOneMove (@PathVariable("id") Long id){
         try {
-            if (!moveService.existsByIdMove (id)) {
+            Optional<Move> move = moveService.findMove(id);
+            if (move.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
-            Move move = moveService.findMove (id).get();
-            return new ResponseEntity<>(move, httpStatus);
+            return new ResponseEntity<>(move.get(), httpStatus);
         }catch (Exception exc){
-            System.out.println(exc);
+            log.error("Error en GET /move/get/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -88,19 +125,19 @@ public class MoveController {
      * La ruta de acceso es "/move/save".
      * @param game El objeto Game que representa la partida en la que se realizará el movimiento.
      * @return Un objeto ResponseEntity que contiene el movimiento guardado y el estado HTTP correspondiente.
+     *         Si ya no quedan balotas en el juego, se devuelve un estado HTTP NO_CONTENT.
      *         Si ocurre algún error, se devuelve un objeto ResponseEntity con un estado HTTP NOT_FOUND.
      */
     @PostMapping(path = "/move/save")
     public ResponseEntity<Move> insertMove (@RequestBody Game game){
         try{
-            Move move = new Move();
-            CreateMove createMove= new CreateMove();
-            int number = createMove.randomNumber();
-            String letter = createMove.letter(number);
-            moveService.postMove (move, number,letter, game);
+            Move move = moveService.postMove (new Move(), game);
+            if (move == null) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
             return new ResponseEntity<>(move, HttpStatus.CREATED);
         }catch (Exception exc){
-            System.out.println(exc);
+            log.error("Error en POST /move/save", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -119,7 +156,7 @@ public class MoveController {
             moveService.putMove (id, move);
             return new ResponseEntity<>( move, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en PUT /move/update/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -137,7 +174,7 @@ public class MoveController {
             moveService.deleteMove (move);
             return new ResponseEntity<>( move, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en DELETE /move/delete/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 
 
 import java.util.List;
+import java.util.Optional;
 @Slf4j
 @RestController
 public class StatusController {
@@ -45,7 +46,7 @@ public class StatusController {
             List<Status> status =  statusService.getStatusList();
             return new ResponseEntity<>(status, httpStatus);
         }catch (Exception exc){
-            System.out.println(exc);
+            log.error("Error en GET /status/all", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -60,13 +61,13 @@ public class StatusController {
     @GetMapping(path = "/status/get/{id}")
     public ResponseEntity<Status> getOneStatus (@PathVariable("id") Long id){
         try {
-            if (!statusService.existsByIdStatus (id)) {
+            Optional<Status> status = statusService.findStatus(id);
+            if (status.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
-            Status status = statusService.findStatus(id).get();
-            return new ResponseEntity<>(status, httpStatus);
+            return new ResponseEntity<>(status.get(), httpStatus);
         }catch (Exception exc){
-            System.out.println(exc);
+            log.error("Error en GET /status/get/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -85,7 +86,7 @@ public class StatusController {
             statusService.postStatus (status);
             return new ResponseEntity<>(status, HttpStatus.CREATED);
         }catch (Exception exc){
-            System.out.println(exc);
+            log.error("Error en POST /status/save", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -102,7 +103,7 @@ public class StatusController {
             statusService.putStatus (id, status);
             return new ResponseEntity<>(status, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en PUT /status/update/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
@@ -120,9 +121,25 @@ public class StatusController {
             statusService.deleteStatus (status);
             return new ResponseEntity<>(status, httpStatus);
         }catch (Exception exc) {
-            System.out.println(exc);
+            log.error("Error en DELETE /status/delete/{id}", exc);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-}
 
+    /**
+     * Función encargada de volver a cargar en memoria los estados desde la base de datos,
+     * para cuando la tabla "status" se modifica por fuera de la API.
+     * La ruta de acceso es "/status/reload".
+     * @return Un objeto ResponseEntity que contiene la lista de estados cargados y el estado HTTP correspondiente.
+     *         Si ocurre algún error, se devuelve un objeto ResponseEntity con un estado HTTP NOT_FOUND.
+     */
+    @PostMapping(path = "/status/reload")
+    public ResponseEntity<List<Status>> reloadStatus (){
+        try {
+            return new ResponseEntity<>(statusService.reloadStatus(), httpStatus);
+        }catch (Exception exc) {
+            log.error("Error en POST /status/reload", exc);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
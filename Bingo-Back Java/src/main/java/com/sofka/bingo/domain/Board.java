@@ -1,21 +1,34 @@
 package com.sofka.bingo.domain;
 
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Cacheable;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Esta clase representa una entidad de Tablero que se mapea a la tabla "tablero" de la base de datos.
  * Incluye el ID del tablero, el ID del jugador y los 25 números del tablero organizados en una cuadrícula de 5x5.
+ * Los números se guardan empaquetados en una sola columna de 25 bytes, en orden de filas (B1, I1, N1, G1, O1, B2, ... O5),
+ * y se decodifican solo cuando se consultan. En JSON se exponen como numberB1 ... numberO5.
+ * Se guarda en la caché de segundo nivel, región "board".
  * @version 1.0.000 2023-01-20
  * @author Wendy Arcila
  */
@@ -23,96 +36,147 @@ import java.io.Serializable;
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "board")
 @Table(name = "board")
 public class Board implements Serializable {
 
     private static final Long serialVersionUID = 1L;
 
     /**
-     * El ID del juego. Es generado automáticamente por la base de datos.
+     * Letras de las columnas del tablero.
+     */
+    private static final String LETTERS = "BINGO";
+
+    /**
+     * Cantidad de filas y columnas del tablero.
+     */
+    private static final int SIZE = 5;
+
+    /**
+     * El ID del tablero. Se asigna por bloques desde la tabla id_generator, lo que permite
+     * insertar muchos tableros en lote con JDBC.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "board_generator")
+    @TableGenerator(
+            name = "board_generator",
+            table = "id_generator",
+            pkColumnName = "gen_name",
+            valueColumnName = "gen_value",
+            pkColumnValue = "board",
+            allocationSize = 50)
     @Column(name = "boa_id")
     private Long idBoard;
 
     @Column(name = "id_gamer")
     private Long gamerId;
 
-    @Column(name = "number_b1")
-    private int numberB1;
-
-    @Column(name = "number_i1")
-    private int numberI1;
-
-    @Column(name = "number_n1")
-    private int numberN1;
-
-    @Column(name = "number_g1")
-    private int numberG1;
-
-    @Column(name = "number_o1")
-    private int numberO1;
-
-    @Column(name = "number_b2")
-    private int numberB2;
-
-    @Column(name = "number_i2")
-    private int numberI2;
-
-    @Column(name = "number_n2")
-    private int numberN2;
-
-    @Column(name = "number_g2")
-    private int numberG2;
-
-    @Column(name = "number_o2")
-    private int numberO2;
-
-    @Column(name = "number_b3")
-    private int numberB3;
-
-    @Column(name = "number_i3")
-    private int numberI3;
-
-    @Column(name = "number_n3")
-    private int numberN3;
-
-    @Column(name = "number_g3")
-    private int numberG3;
-
-    @Column(name = "number_o3")
-    private int numberO3;
-
-    @Column(name = "number_b4")
-    private int numberB4;
-
-    @Column(name = "number_i4")
-    private int numberI4;
+    /**
+     * El ID del juego al que pertenece el tablero: el juego para el que se generó en lote
+     * o el juego en el que lo recibió un jugador. Un tablero sin jugador ni juego está libre.
+     */
+    @Column(name = "gam_id")
+    private Long gameId;
 
-    @Column(name = "number_n4")
-    private int numberN4;
+    /**
+     * Los 25 números del tablero empaquetados, un byte por casilla en orden de filas.
+     */
+    @JsonIgnore
+    @Column(name = "cells", length = SIZE * SIZE)
+    private byte[] cells;
 
-    @Column(name = "number_g4")
-    private int numberG4;
+    /**
+     * Los números del tablero decodificados, se calculan la primera vez que se consultan.
+     */
+    @JsonIgnore
+    @Transient
+    private transient int[] numbers;
 
-    @Column(name = "number_o4")
-    private int numberO4;
+    /**
+     * Reemplaza los números empaquetados del tablero.
+     * @param cells los 25 números empaquetados en orden de filas
+     */
+    public void setCells(byte[] cells) {
+        this.cells = cells;
+        this.numbers = null;
+    }
 
-    @Column(name = "number_b5")
-    private int numberB5;
+    /**
+     * Retorna los 25 números del tablero en orden de filas. El arreglo se comparte y no debe modificarse.
+     * @return los números del tablero
+     */
+    @JsonIgnore
+    public int[] getNumbers() {
+        if (numbers == null) {
+            int[] decoded = new int[SIZE * SIZE];
+            if (cells != null) {
+                for (int i = 0; i < decoded.length; i++) {
+                    decoded[i] = cells[i] & 0xFF;
+                }
+            }
+            numbers = decoded;
+        }
+        return numbers;
+    }
 
-    @Column(name = "number_i5")
-    private int numberI5;
+    /**
+     * Reemplaza los 25 números del tablero.
+     * @param numbers los números del tablero en orden de filas
+     */
+    public void setNumbers(int[] numbers) {
+        byte[] packed = new byte[SIZE * SIZE];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = (byte) numbers[i];
+        }
+        setCells(packed);
+    }
 
-    @Column(name = "number_n5")
-    private int numberN5;
+    /**
+     * Retorna el número de una casilla del tablero.
+     * @param row la fila de la casilla (0 a 4)
+     * @param column la columna de la casilla (0 a 4)
+     * @return el número de la casilla
+     */
+    public int getNumber(int row, int column) {
+        return getNumbers()[row * SIZE + column];
+    }
 
-    @Column(name = "number_g5")
-    private int numberG5;
+    /**
+     * Retorna los números del tablero con los nombres numberB1 ... numberO5 para la respuesta JSON.
+     * @return los números del tablero indexados por nombre
+     */
+    @JsonAnyGetter
+    public Map<String, Integer> getNumbersByName() {
+        Map<String, Integer> named = new LinkedHashMap<>();
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                named.put("number" + LETTERS.charAt(column) + (row + 1), getNumber(row, column));
+            }
+        }
+        return named;
+    }
 
-    @Column(name = "number_o5")
-    private int numberO5;
+    /**
+     * Asigna un número del tablero a partir de su nombre JSON (numberB1 ... numberO5).
+     * Las propiedades desconocidas se ignoran.
+     * @param name el nombre de la propiedad
+     * @param value el valor de la propiedad
+     */
+    @JsonAnySetter
+    public void setNumberByName(String name, Object value) {
+        if (name.length() != 8 || !name.startsWith("number") || !(value instanceof Number number)) {
+            return;
+        }
+        int column = LETTERS.indexOf(name.charAt(6));
+        int row = name.charAt(7) - '1';
+        if (column < 0 || row < 0 || row >= SIZE) {
+            return;
+        }
+        int[] updated = getNumbers().clone();
+        updated[row * SIZE + column] = number.intValue();
+        setNumbers(updated);
+    }
 
     // Los getters y setters para todos los atributos son generados por Lombok.
 
@@ -0,0 +1,15 @@
+package com.sofka.bingo.domain;
+
+import java.io.Serializable;
+
+/**
+ * La clase Draw es una balota sacada en un juego, con su posición dentro del juego.
+ * Es lo que reciben los clientes que piden las balotas que se perdieron desde una posición dada.
+ * @param seq la posición de la balota en el juego, empezando en 1
+ * @param number el número de la balota
+ * @param letter la letra de la balota
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public record Draw(Integer seq, int number, String letter) implements Serializable {
+}
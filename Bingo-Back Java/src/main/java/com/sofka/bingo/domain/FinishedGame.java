@@ -0,0 +1,72 @@
+package com.sofka.bingo.domain;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Where;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * La clase FinishedGame es la vista de solo lectura de un juego en estado "Finalizado" (ID 5, ver {@link StatusType}).
+ * Se mapea a la misma tabla "game" que {@link Game}, pero solo carga los juegos finalizados, junto con la cantidad
+ * de jugadores, la cantidad de jugadas y la última balota. Como un juego finalizado ya no cambia,
+ * se guarda en la región de solo lectura "finished-game" de la caché de segundo nivel.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Getter
+@Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "finished-game")
+@Table(name = "game")
+// 5 es el ID de StatusType.GAME_FINISHED; GameServiceTests verifica que coincidan.
+@Where(clause = "statu_id = 5")
+public class FinishedGame implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "gam_id")
+    private Long idGame;
+
+    private String winner;
+
+    @Column(name = "update_date")
+    private Instant updateAt;
+
+    @Column(name = "statu_id")
+    private Long idStatus;
+
+    @Formula("(select status.statu_name from status status where status.statu_id = statu_id)")
+    private String statusName;
+
+    @Formula("(select count(*) from gamer gamer where gamer.gam_id = gam_id)")
+    private Long gamers;
+
+    @Formula("(select count(*) from move move where move.gam_id = gam_id)")
+    private Long moves;
+
+    @Formula("(select move.mov_number from move move where move.gam_id = gam_id order by move.mov_id desc limit 1)")
+    private Integer lastNumber;
+
+    @Formula("(select move.mov_letter from move move where move.gam_id = gam_id order by move.mov_id desc limit 1)")
+    private String lastLetter;
+
+    /**
+     * Convierte el juego finalizado en su resumen.
+     * @return el resumen del juego
+     */
+    public GameSummary toSummary() {
+        return new GameSummary(idGame, idStatus, statusName, winner, gamers, moves, lastNumber, lastLetter, updateAt);
+    }
+}
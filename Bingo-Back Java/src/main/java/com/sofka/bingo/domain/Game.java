@@ -1,5 +1,6 @@
 package com.sofka.bingo.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
@@ -12,7 +13,11 @@ import jakarta.persistence.OneToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 
 import java.io.Serializable;
 import java.time.Instant;
@@ -23,12 +28,20 @@ import java.util.List;
  * La clase Game representa un juego en el sistema.
  * Se asigna a la tabla "juego" de la base de datos mediante anotaciones JPA.
  * Contiene el ID del juego, ganador, fecha de creación, fecha de actualización, estado, jugadores y movimientos.
+ * Los jugadores y movimientos se cargan solo cuando se usan, por lotes; el grafo "Game.gamers" permite
+ * cargar el juego con sus jugadores, tableros y estados en una sola consulta cuando se necesita completo.
  * @version 1.0.000 2023-01-20
  * @author Wendy Arcila
  */
 @Data
 @Entity
 @Table(name = "game")
+@NamedEntityGraph(
+        name = "Game.gamers",
+        attributeNodes = @NamedAttributeNode(value = "gamers", subgraph = "gamer"),
+        subgraphs = @NamedSubgraph(
+                name = "gamer",
+                attributeNodes = {@NamedAttributeNode("board"), @NamedAttributeNode("statusGamer")}))
 public class Game implements Serializable {
     private static final Long serialVersionUID = 1L;
 
@@ -48,6 +61,13 @@ public class Game implements Serializable {
     @Column(name = "update_date")
     private Instant updateAt;
 
+    /**
+     * Semilla con la que se baraja el mazo de balotas del juego. No se expone para que no se puedan predecir las balotas.
+     */
+    @JsonIgnore
+    @Column(name = "seed")
+    private Long seed;
+
     /**
      * El estado del juego, representado por un objeto Status.
      */
@@ -59,8 +79,9 @@ public class Game implements Serializable {
      * La lista de jugadores que participan en el juego, representada por una lista de objetos Gamer.
      */
     @JsonManagedReference(value="game")
+    @BatchSize(size = 50)
     @OneToMany(
-            fetch = FetchType.EAGER,
+            fetch = FetchType.LAZY,
             mappedBy = "game",
             cascade = CascadeType.ALL)
     private List<Gamer> gamers = new ArrayList<>();
@@ -69,8 +90,9 @@ public class Game implements Serializable {
      * La lista de jugadas realizadas durante la partida, representada por una lista de objetos Move.
      */
     @JsonManagedReference(value="move")
+    @BatchSize(size = 50)
     @OneToMany(
-            fetch = FetchType.EAGER,
+            fetch = FetchType.LAZY,
             mappedBy = "game",
             cascade = CascadeType.ALL)
     private List<Move> moves = new ArrayList<>();
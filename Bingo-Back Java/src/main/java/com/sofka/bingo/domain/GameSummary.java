@@ -0,0 +1,32 @@
+package com.sofka.bingo.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * La clase GameSummary es el resumen de un juego: su estado, ganador, cantidad de jugadores,
+ * cantidad de jugadas y la última balota. Se obtiene con una sola consulta, sin cargar
+ * la lista de jugadores ni la de jugadas del juego.
+ * @param idGame el ID del juego
+ * @param idStatus el ID del estado del juego
+ * @param statusName el nombre del estado del juego
+ * @param winner el ganador del juego, si ya lo tiene
+ * @param gamers la cantidad de jugadores del juego
+ * @param moves la cantidad de jugadas del juego
+ * @param lastNumber el número de la última balota, o null si aún no ha salido ninguna
+ * @param lastLetter la letra de la última balota, o null si aún no ha salido ninguna
+ * @param updateAt la fecha de la última actualización del juego
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public record GameSummary(
+        Long idGame,
+        Long idStatus,
+        String statusName,
+        String winner,
+        Long gamers,
+        Long moves,
+        Integer lastNumber,
+        String lastLetter,
+        Instant updateAt) implements Serializable {
+}
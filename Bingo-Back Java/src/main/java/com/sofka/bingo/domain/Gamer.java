@@ -6,6 +6,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.JoinColumn;
@@ -27,7 +28,7 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "gamer")
+@Table(name = "gamer", uniqueConstraints = @UniqueConstraint(name = "gamer_user_uq", columnNames = "user"))
 public class Gamer implements Serializable {
 
     private static final Long serialVersionUID = 1L;
@@ -46,8 +47,10 @@ public class Gamer implements Serializable {
     @Column(name = "update_date")
     private Instant updateAt;
 
-
-    @Column(name = "user")
+    /**
+     * El nombre de usuario del jugador. Es único, con el índice gamer_user_uq.
+     */
+    @Column(name = "user", nullable = false)
     private String user;
 
     /**
@@ -41,6 +41,12 @@ public class Move implements Serializable {
     @Column(name = "mov_number")
     private int number;
 
+    /**
+     * Posición de la balota dentro del juego, empezando en 1.
+     */
+    @Column(name = "mov_seq")
+    private Integer seq;
+
     /**
      * Juego (Game) al que está relacionado el movimiento.
      */
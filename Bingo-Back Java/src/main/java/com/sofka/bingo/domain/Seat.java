@@ -0,0 +1,17 @@
+package com.sofka.bingo.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * La clase Seat es el puesto que el lobby le asignó a un jugador en una sala.
+ * @param idGamer el ID del jugador
+ * @param idGame el ID del juego de la sala
+ * @param seat el número de puesto del jugador en la sala, que conserva si vuelve a pedir su puesto
+ * @param capacity la cantidad máxima de puestos de la sala
+ * @param startAt el momento en que inicia el juego, si antes no se llena la sala
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public record Seat(Long idGamer, Long idGame, int seat, int capacity, Instant startAt) implements Serializable {
+}
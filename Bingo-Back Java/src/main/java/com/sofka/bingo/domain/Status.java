@@ -6,16 +6,22 @@ import jakarta.persistence.Table;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.Cacheable;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.io.Serializable;
 
 /**
  * Esta clase representa el estado de una entidad de juego, tablero o jugador.
+ * Se guarda en la caché de segundo nivel, región "status".
  * @version 1.0.000 2023-01-20
  * @author Wendy Arcila
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "status")
 @Table(name = "status")
 public class Status implements  Serializable {
     private static final Long serialVersionUID = 1L;
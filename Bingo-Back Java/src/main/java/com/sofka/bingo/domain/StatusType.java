@@ -0,0 +1,72 @@
+package com.sofka.bingo.domain;
+
+import java.util.Optional;
+
+/**
+ * Enumeración de los estados de juegos y jugadores. Refleja las filas de la tabla "status"
+ * cargadas con el script "Status information.sql", en el mismo orden y con los mismos IDs.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public enum StatusType {
+
+    GAME_STARTED(1L, "Iniciado"),
+    GAME_WAITING(2L, "En espera"),
+    GAME_IN_PROGRESS(3L, "En curso"),
+    GAME_EVALUATING(4L, "Evaluando"),
+    GAME_FINISHED(5L, "Finalizado"),
+    GAMER_CONNECTED(6L, "Conectado"),
+    GAMER_WAITING(7L, "En espera"),
+    GAMER_PLAYING(8L, "Jugando"),
+    GAMER_WINNER(9L, "Ganador"),
+    GAMER_DISQUALIFIED(10L, "Descalificado"),
+    GAMER_DISCONNECTED(11L, "Desconectado");
+
+    private final Long id;
+
+    private final String statusName;
+
+    StatusType(Long id, String statusName) {
+        this.id = id;
+        this.statusName = statusName;
+    }
+
+    /**
+     * Retorna el ID del estado en la tabla "status".
+     * @return el ID del estado
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Retorna el nombre del estado en la tabla "status".
+     * @return el nombre del estado
+     */
+    public String getStatusName() {
+        return statusName;
+    }
+
+    /**
+     * Indica si el ID dado corresponde a este estado.
+     * @param idStatus el ID de un estado
+     * @return verdadero si el ID es el de este estado
+     */
+    public boolean is(Long idStatus) {
+        return id.equals(idStatus);
+    }
+
+    /**
+     * Busca el estado que corresponde a un ID de la tabla "status".
+     * @param idStatus el ID del estado
+     * @return el estado, o vacío si el ID no corresponde a ninguno
+     */
+    public static Optional<StatusType> fromId(Long idStatus) {
+        for (StatusType type : values()) {
+            if (type.is(idStatus)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -1,8 +1,16 @@
 package com.sofka.bingo.repository;
 
-
 import com.sofka.bingo.domain.Board;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Esta interfaz representa un repositorio de tablas.
@@ -10,4 +18,40 @@ import org.springframework.data.repository.CrudRepository;
  */
 public interface BoardRepository extends CrudRepository <Board, Long> {
 
+    /**
+     * Encuentra los números empaquetados de todos los tableros de un juego: los generados para el juego
+     * y los de los jugadores que están en él.
+     * @param idGame el ID del juego
+     * @return la lista de números empaquetados de los tableros del juego
+     */
+    @Query("select board.cells from Board board where board.gameId = :gam_id " +
+            "or board.idBoard in (select gamer.board.idBoard from Gamer gamer where gamer.game.idGame = :gam_id)")
+    public List<byte[]> findCellsByGame(@Param(value = "gam_id") Long idGame);
+
+    /**
+     * Encuentra los IDs de los tableros libres, es decir, sin jugador ni juego.
+     * @param pageable la cantidad máxima de IDs a traer
+     * @return la lista de IDs de tableros libres
+     */
+    @Query("select board.idBoard from Board board where board.gamerId is null and board.gameId is null order by board.idBoard")
+    public List<Long> findFreeIds(Pageable pageable);
+
+    /**
+     * Encuentra una página de tableros con ID mayor al cursor dado, ordenados por ID.
+     * @param after el ID del último tablero de la página anterior
+     * @param pageable la cantidad máxima de tableros de la página
+     * @return la lista de tableros de la página
+     */
+    public List<Board> findByIdBoardGreaterThanOrderByIdBoard(Long after, Pageable pageable);
+
+    /**
+     * Recorre los tableros con ID mayor al cursor dado, ordenados por ID, leyendo las filas a medida que se consumen.
+     * Debe usarse dentro de una transacción y cerrarse al terminar.
+     * @param after el ID a partir del cual se recorren los tableros
+     * @return el flujo de tableros
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select board from Board board where board.idBoard > :after order by board.idBoard")
+    public Stream<Board> streamAfter(@Param(value = "after") Long after);
+
 }
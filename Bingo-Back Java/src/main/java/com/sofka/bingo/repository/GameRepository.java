@@ -1,12 +1,22 @@
 package com.sofka.bingo.repository;
 
 import com.sofka.bingo.domain.Game;
+import com.sofka.bingo.domain.GameSummary;
+import com.sofka.bingo.domain.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
-
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Esta interfaz representa un repositorio para juegos.
@@ -16,17 +26,103 @@ import org.springframework.data.repository.query.Param;
 public interface GameRepository extends CrudRepository <Game, Long> {
 
     /**
-     * Actualiza el ganador de un juego con el ID dado.
+     * Registra el ganador de un juego con el ID dado, solo si el juego aún no tiene ganador.
+     * Como la condición se evalúa en la misma sentencia, entre reclamaciones simultáneas gana la primera.
      * @param idGame el ID del juego a actualizar
      * @param winner el nombre del ganador
+     * @return la cantidad de juegos actualizados, 0 si el juego no existe o ya tenía ganador
      */
     @Modifying
-    @Query("update Game game set game.winner = :winner where game.idGame = :gam_id")
-    public void updateWinnerG(
+    @Query("update Game game set game.winner = :winner where game.idGame = :gam_id and game.winner is null")
+    public int updateWinnerG(
             @Param(value = "gam_id") Long idGame,
             @Param(value = "winner") String winner);
 
+    /**
+     * Actualiza el estado y la fecha de actualización de un juego con el ID dado, sin cargar el juego.
+     * @param idGame el ID del juego a actualizar
+     * @param status el nuevo estado del juego
+     * @param updateAt la fecha de actualización
+     * @return la cantidad de juegos actualizados, 0 si el juego no existe
+     */
+    @Modifying
+    @Query("update Game game set game.statusGame = :statu_id, game.updateAt = :update_date where game.idGame = :gam_id")
+    public int updateStatusG(
+            @Param(value = "gam_id") Long idGame,
+            @Param(value = "statu_id") Status status,
+            @Param(value = "update_date") Instant updateAt);
 
-}
+    /**
+     * Encuentra un juego con sus jugadores, y el tablero y estado de cada jugador, en una sola consulta.
+     * @param idGame el ID del juego
+     * @return el juego con sus jugadores, o vacío si no existe
+     */
+    @EntityGraph(value = "Game.gamers")
+    public Optional<Game> findWithGamersByIdGame(Long idGame);
+
+    /**
+     * Consulta de los resúmenes de juegos, sin la condición; cada resumen se arma en la base de datos
+     * sin cargar los jugadores ni las jugadas del juego.
+     */
+    String SUMMARY_SELECT = "select new com.sofka.bingo.domain.GameSummary(game.idGame, status.idStatus, "
+            + "status.statusName, game.winner, "
+            + "(select count(gamer) from Gamer gamer where gamer.game = game), "
+            + "(select count(move) from Move move where move.game = game), "
+            + "last.number, last.letter, game.updateAt) "
+            + "from Game game left join game.statusGame status "
+            + "left join Move last on last.game = game "
+            + "and last.idMove = (select max(move.idMove) from Move move where move.game = game) ";
+
+    /**
+     * Encuentra el resumen de un juego: estado, ganador, cantidad de jugadores y de jugadas, y la última balota.
+     * @param idGame el ID del juego
+     * @return el resumen del juego, o vacío si no existe
+     */
+    @Query(SUMMARY_SELECT + "where game.idGame = :gam_id")
+    public Optional<GameSummary> findSummary(@Param(value = "gam_id") Long idGame);
 
+    /**
+     * Encuentra la semilla del mazo de balotas de un juego.
+     * @param idGame el ID del juego
+     * @return la semilla del juego, o vacío si el juego no existe o no tiene semilla
+     */
+    @Query("select game.seed from Game game where game.idGame = :gam_id")
+    public Optional<Long> findSeed(@Param(value = "gam_id") Long idGame);
+
+    /**
+     * Encuentra el ganador de un juego.
+     * @param idGame el ID del juego
+     * @return el ganador, o vacío si el juego no existe o no tiene ganador
+     */
+    @Query("select game.winner from Game game where game.idGame = :gam_id")
+    public Optional<String> findWinner(@Param(value = "gam_id") Long idGame);
+
+    /**
+     * Encuentra los juegos en un estado dado que tienen al menos un jugador, ordenados por ID.
+     * @param idStatus el ID del estado
+     * @return la lista de IDs de los juegos
+     */
+    @Query("select game.idGame from Game game where game.statusGame.idStatus = :statu_id "
+            + "and exists (select gamer from Gamer gamer where gamer.game = game) order by game.idGame")
+    public List<Long> findIdsWithGamersByStatus(@Param(value = "statu_id") Long idStatus);
 
+    /**
+     * Encuentra una página de resúmenes de juegos con ID mayor al cursor dado, ordenados por ID.
+     * @param after el ID del último juego de la página anterior
+     * @param pageable la cantidad máxima de juegos de la página
+     * @return la lista de resúmenes de la página
+     */
+    @Query(SUMMARY_SELECT + "where game.idGame > :after order by game.idGame")
+    public List<GameSummary> findSummaryPage(@Param(value = "after") Long after, Pageable pageable);
+
+    /**
+     * Recorre los resúmenes de los juegos con ID mayor al cursor dado, ordenados por ID, leyendo las filas
+     * a medida que se consumen. Debe usarse dentro de una transacción y cerrarse al terminar.
+     * @param after el ID a partir del cual se recorren los juegos
+     * @return el flujo de resúmenes de juegos
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + "where game.idGame > :after order by game.idGame")
+    public Stream<GameSummary> streamSummariesAfter(@Param(value = "after") Long after);
+
+}
@@ -1,12 +1,21 @@
 package com.sofka.bingo.repository;
 
-
 import com.sofka.bingo.domain.Gamer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Esta interfaz representa un repositorio para jugadores.
  * Extiende la interfaz JPA de Spring Data {@link org.springframework.data.repository.CrudRepository}.
@@ -24,6 +33,55 @@ public interface GamerRepository extends CrudRepository <Gamer, Long> {
              @Param(value = "statu_id") Long statusGamer,
              @Param(value = "id_gamer") Long idGamer);
 
+    /**
+     * Actualiza el estado de los jugadores con los IDs dados.
+     * @param ids los IDs de los jugadores a actualizar
+     * @param statusGamer el ID del nuevo estado
+     * @param updateAt la fecha de actualización
+     * @return la cantidad de jugadores actualizados
+     */
+    @Modifying
+    @Query("UPDATE Gamer gamer set gamer.statusGamer.idStatus = :statu_id, gamer.updateAt = :update_date " +
+            "where gamer.idGamer in :ids")
+    public int updateStatusByIds(
+            @Param(value = "ids") Collection<Long> ids,
+            @Param(value = "statu_id") Long statusGamer,
+            @Param(value = "update_date") Instant updateAt);
+
+    /**
+     * Actualiza el estado de los jugadores de un juego que están en la lista de usuarios dada.
+     * @param idGame el ID del juego
+     * @param users los nombres de usuario de los jugadores a actualizar
+     * @param statusGamer el ID del nuevo estado
+     * @param updateAt la fecha de actualización
+     * @return la cantidad de jugadores actualizados
+     */
+    @Modifying
+    @Query("UPDATE Gamer gamer set gamer.statusGamer.idStatus = :statu_id, gamer.updateAt = :update_date " +
+            "where gamer.game.idGame = :gam_id and gamer.user in :users")
+    public int updateStatusByGameAndUsers(
+            @Param(value = "gam_id") Long idGame,
+            @Param(value = "users") Collection<String> users,
+            @Param(value = "statu_id") Long statusGamer,
+            @Param(value = "update_date") Instant updateAt);
+
+    /**
+     * Actualiza el estado de los jugadores de un juego que no están en la lista de usuarios dada.
+     * @param idGame el ID del juego
+     * @param users los nombres de usuario de los jugadores que no se actualizan
+     * @param statusGamer el ID del nuevo estado
+     * @param updateAt la fecha de actualización
+     * @return la cantidad de jugadores actualizados
+     */
+    @Modifying
+    @Query("UPDATE Gamer gamer set gamer.statusGamer.idStatus = :statu_id, gamer.updateAt = :update_date " +
+            "where gamer.game.idGame = :gam_id and gamer.user not in :users")
+    public int updateStatusByGameExceptUsers(
+            @Param(value = "gam_id") Long idGame,
+            @Param(value = "users") Collection<String> users,
+            @Param(value = "statu_id") Long statusGamer,
+            @Param(value = "update_date") Instant updateAt);
+
     /**
      * Actualiza el tablero de un jugador con el ID dado.
      * @param board el ID del nuevo tablero
@@ -37,10 +95,71 @@ public interface GamerRepository extends CrudRepository <Gamer, Long> {
 
 
     /**
-     * Encuentra un jugador por su nombre de usuario.
+     * Encuentra un jugador por su nombre de usuario, con el índice único del usuario.
      * @param user el nombre de usuario del jugador a encontrar
      * @return  el jugador con el nombre de usuario dado o {@literal null} si no se encuentra ninguno
      */
     @Query("SELECT gamer FROM Gamer gamer WHERE gamer.user = :user")
     public Gamer findByUser(@Param("user") String user);
+
+    /**
+     * Encuentra el ID del juego en el que está un jugador.
+     * @param idGamer el ID del jugador
+     * @return el ID del juego, o vacío si el jugador no existe o no está en un juego
+     */
+    @Query("SELECT game.idGame FROM Gamer gamer JOIN gamer.game game WHERE gamer.idGamer = :id_gamer")
+    public Optional<Long> findGameId(@Param("id_gamer") Long idGamer);
+
+    /**
+     * Encuentra los jugadores de un juego que tienen tablero, junto con su tablero, en una sola consulta.
+     * @param idGame el ID del juego
+     * @return la lista de jugadores del juego con su tablero cargado
+     */
+    @Query("SELECT gamer FROM Gamer gamer JOIN FETCH gamer.board WHERE gamer.game.idGame = :gam_id")
+    public List<Gamer> findByGameWithBoard(@Param("gam_id") Long idGame);
+
+    /**
+     * Encuentra el jugador de un juego por su nombre de usuario, junto con su tablero y su estado, en una sola consulta.
+     * @param idGame el ID del juego
+     * @param user el nombre de usuario del jugador
+     * @return el jugador con su tablero cargado, o vacío si el usuario no está en el juego o no tiene tablero
+     */
+    @Query("SELECT gamer FROM Gamer gamer JOIN FETCH gamer.board LEFT JOIN FETCH gamer.statusGamer "
+            + "WHERE gamer.game.idGame = :gam_id AND gamer.user = :user")
+    public Optional<Gamer> findInGameWithBoard(@Param("gam_id") Long idGame, @Param("user") String user);
+
+    /**
+     * Encuentra los nombres de usuario de los jugadores de un juego.
+     * @param idGame el ID del juego
+     * @return la lista de usuarios del juego
+     */
+    @Query("SELECT gamer.user FROM Gamer gamer WHERE gamer.game.idGame = :gam_id")
+    public List<String> findUsersByGame(@Param("gam_id") Long idGame);
+
+    /**
+     * Encuentra los IDs de los jugadores de un juego, en el orden en que entraron al juego.
+     * @param idGame el ID del juego
+     * @return la lista de IDs de los jugadores del juego
+     */
+    @Query("SELECT gamer.idGamer FROM Gamer gamer WHERE gamer.game.idGame = :gam_id ORDER BY gamer.updateAt, gamer.idGamer")
+    public List<Long> findIdsByGame(@Param("gam_id") Long idGame);
+
+    /**
+     * Encuentra una página de jugadores con ID mayor al cursor dado, ordenados por ID.
+     * @param after el ID del último jugador de la página anterior
+     * @param pageable la cantidad máxima de jugadores de la página
+     * @return la lista de jugadores de la página
+     */
+    public List<Gamer> findByIdGamerGreaterThanOrderByIdGamer(Long after, Pageable pageable);
+
+    /**
+     * Recorre los jugadores con ID mayor al cursor dado, ordenados por ID, leyendo las filas a medida que se consumen.
+     * Debe usarse dentro de una transacción y cerrarse al terminar.
+     * @param after el ID a partir del cual se recorren los jugadores
+     * @return el flujo de jugadores
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select gamer from Gamer gamer where gamer.idGamer > :after order by gamer.idGamer")
+    public Stream<Gamer> streamAfter(@Param(value = "after") Long after);
+
 }
@@ -1,11 +1,19 @@
 package com.sofka.bingo.repository;
 
+import com.sofka.bingo.domain.Draw;
 import com.sofka.bingo.domain.Move;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Esta interfaz representa un repositorio de movimientos.
  * Extiende la interfaz JPA de Spring Data {@link org.springframework.data.repository.CrudRepository}.
@@ -23,5 +31,40 @@ public interface MoveRepository extends CrudRepository <Move, Long> {
             @Param(value = "gam_id") Long idGame,
             @Param(value = "statu_id") int statusGame);
 
+    /**
+     * Encuentra los números de las balotas que han salido en un juego.
+     * @param idGame el ID del juego
+     * @return la lista de números de las balotas del juego, en orden de salida
+     */
+    @Query("select move.number from Move move where move.game.idGame = :gam_id order by move.idMove")
+    public List<Integer> findNumbersByGame(@Param(value = "gam_id") Long idGame);
+
+    /**
+     * Encuentra las balotas de un juego con posición mayor a la dada, usando el índice (gam_id, mov_seq).
+     * @param idGame el ID del juego
+     * @param since la posición a partir de la cual se buscan las balotas
+     * @return la lista de balotas, en orden de posición
+     */
+    @Query("select new com.sofka.bingo.domain.Draw(move.seq, move.number, move.letter) from Move move " +
+            "where move.game.idGame = :gam_id and move.seq > :since order by move.seq")
+    public List<Draw> findDrawsSince(@Param(value = "gam_id") Long idGame, @Param(value = "since") int since);
+
+    /**
+     * Encuentra una página de movimientos con ID mayor al cursor dado, ordenados por ID.
+     * @param after el ID del último movimiento de la página anterior
+     * @param pageable la cantidad máxima de movimientos de la página
+     * @return la lista de movimientos de la página
+     */
+    public List<Move> findByIdMoveGreaterThanOrderByIdMove(Long after, Pageable pageable);
+
+    /**
+     * Recorre los movimientos con ID mayor al cursor dado, ordenados por ID, leyendo las filas a medida que se consumen.
+     * Debe usarse dentro de una transacción y cerrarse al terminar.
+     * @param after el ID a partir del cual se recorren los movimientos
+     * @return el flujo de movimientos
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select move from Move move where move.idMove > :after order by move.idMove")
+    public Stream<Move> streamAfter(@Param(value = "after") Long after);
 
 }
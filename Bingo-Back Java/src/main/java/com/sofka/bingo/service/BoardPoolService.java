@@ -0,0 +1,198 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.Board;
+import com.sofka.bingo.repository.BoardRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio BoardPoolService mantiene una reserva acotada de tableros ya generados y guardados, sin jugador,
+ * para que asignar un tablero a un jugador que entra a la sala sea tomar uno de la reserva.
+ * Un proceso en segundo plano, con su propio ejecutor, vuelve a llenar la reserva cuando baja del nivel mínimo.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Slf4j
+@Service
+public class BoardPoolService {
+
+    /**
+     * Toma un tablero solo si sigue libre, para que dos jugadores, o dos nodos, no reciban el mismo tablero.
+     */
+    private static final String CLAIM_BOARD = "update board set id_gamer = ?, gam_id = ? where boa_id = ? and id_gamer is null and gam_id is null";
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ScheduledExecutorService boardPoolScheduler;
+
+    @Value("${bingo.board-pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bingo.board-pool.capacity:1000}")
+    private int capacity;
+
+    @Value("${bingo.board-pool.low-water:250}")
+    private int lowWater;
+
+    @Value("${bingo.board-pool.check-interval-ms:1000}")
+    private long checkIntervalMs;
+
+    /**
+     * IDs de los tableros libres de la reserva.
+     */
+    private BlockingQueue<Long> pool;
+
+    /**
+     * Indica si hay un llenado de la reserva en curso.
+     */
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    private final AtomicLong claimed = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong generated = new AtomicLong();
+
+    @PostConstruct
+    private void init() {
+        pool = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Carga los tableros libres que ya existen y programa el llenado periódico de la reserva.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        boardPoolScheduler.execute(() -> {
+            try {
+                pool.addAll(boardRepository.findFreeIds(PageRequest.of(0, capacity)));
+            } catch (Exception exc) {
+                log.error("Error al cargar los tableros libres", exc);
+            }
+        });
+        boardPoolScheduler.scheduleWithFixedDelay(this::refillIfLow, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Toma un tablero de la reserva y lo asigna al jugador y al juego en el que lo recibe.
+     * El tablero se toma con una actualización condicional que solo afecta a un tablero libre; si otra transacción
+     * ya lo tomó, se descarta de la caché y se intenta con el siguiente.
+     * Si el tablero repite otro tablero del juego, sus números se reemplazan por los de uno que no se repite.
+     * @param idGamer el ID del jugador, o null si el jugador aún no se guarda y se le asigna después
+     * @param idGame el ID del juego del jugador, o null si no está en un juego; el jugador o el juego deben indicarse
+     * @return el tablero asignado, o null si la reserva está vacía
+     */
+    @Transactional
+    public Board claim(Long idGamer, Long idGame) {
+        if (!enabled) {
+            return null;
+        }
+        Long idBoard;
+        while ((idBoard = pool.poll()) != null) {
+            Board board = boardService.findBoard(idBoard).orElse(null);
+            if (board == null || board.getGamerId() != null || board.getGameId() != null) {
+                continue;
+            }
+            // JDBC no pasa por Hibernate, así que no vacía la caché de tableros como lo haría una consulta masiva.
+            if (jdbcTemplate.update(CLAIM_BOARD, idGamer, idGame, idBoard) == 1) {
+                // La entidad se actualiza con los mismos valores para que la caché quede igual a la fila.
+                boardService.bindToGame(idGame, board);
+                board.setGamerId(idGamer);
+                boardService.evictEtag(idBoard);
+                claimed.incrementAndGet();
+                if (pool.size() < lowWater) {
+                    boardPoolScheduler.execute(this::refillIfLow);
+                }
+                return board;
+            }
+            entityManager.detach(board);
+            entityManager.getEntityManagerFactory().getCache().evict(Board.class, idBoard);
+        }
+        misses.incrementAndGet();
+        boardPoolScheduler.execute(this::refillIfLow);
+        return null;
+    }
+
+    /**
+     * Retorna el nivel de llenado y los contadores de la reserva.
+     * @return las métricas de la reserva indexadas por nombre
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", pool.size());
+        stats.put("capacity", capacity);
+        stats.put("lowWater", lowWater);
+        stats.put("fillRatio", (double) pool.size() / capacity);
+        stats.put("claimed", claimed.get());
+        stats.put("misses", misses.get());
+        stats.put("generated", generated.get());
+        return stats;
+    }
+
+    /**
+     * Retorna la cantidad de tableros libres en la reserva.
+     * @return la cantidad de tableros en la reserva
+     */
+    public int size() {
+        return pool.size();
+    }
+
+    /**
+     * Llena la reserva hasta su capacidad si está por debajo del nivel mínimo.
+     * Solo un llenado corre a la vez.
+     */
+    private void refillIfLow() {
+        if (pool.size() >= lowWater || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int missing = capacity - pool.size();
+            if (missing > 0) {
+                for (Board board : boardService.postBoards(null, missing)) {
+                    if (!pool.offer(board.getIdBoard())) {
+                        break;
+                    }
+                    generated.incrementAndGet();
+                }
+            }
+        } catch (Exception exc) {
+            log.error("Error al llenar la reserva de tableros", exc);
+        } finally {
+            refilling.set(false);
+        }
+    }
+}
@@ -2,12 +2,30 @@ package com.sofka.bingo.service;
 
 import com.sofka.bingo.domain.Board;
 import com.sofka.bingo.repository.BoardRepository;
+import com.sofka.bingo.repository.GameRepository;
+import com.sofka.bingo.repository.GamerRepository;
 import com.sofka.bingo.service.interfaces.IBoard;
+import com.sofka.bingo.utility.BoardMask;
+import com.sofka.bingo.utility.CreateBoard;
+import com.sofka.bingo.utility.GameFinishedEvent;
+import com.sofka.bingo.utility.LongHashSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio BoardService establece los métodos para manejar los tableros del juego.
@@ -19,14 +37,73 @@ public class BoardService implements IBoard {
     @Autowired
     private BoardRepository boardRepository;
 
+    @Autowired
+    private GamerRepository gamerRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private GameMetricsService gameMetricsService;
+
     /**
-     * Retorna una lista de todos los tableros disponibles en el sistema.
+     * Cantidad de tableros que se envían a la base de datos en cada lote JDBC.
+     */
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    /**
+     * Huellas de los tableros de cada juego, indexadas por ID del juego, para no repetir tableros en un mismo juego.
+     * Cubre los tableros generados para el juego y los que reciben sus jugadores al entrar o al cambiar de tablero.
+     */
+    private final Map<Long, LongHashSet> fingerprintsByGame = new ConcurrentHashMap<>();
+
+    /**
+     * Cantidad máxima de ETags de tableros que se guardan en memoria.
+     */
+    @Value("${bingo.boards.etag-cache-size:100000}")
+    private int etagCacheSize;
+
+    /**
+     * ETag de los tableros ya consultados, indexados por ID del tablero. Se descartan los menos usados.
+     */
+    private final Map<Long, String> etags = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > etagCacheSize;
+        }
+    });
+
+    /**
+     * Retorna una página de tableros con ID mayor al cursor dado, ordenados por ID.
+     * @param after el ID del último tablero de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de tableros a retornar
      * @return una lista de objetos Board
      */
     @Override
-    @Transactional()
-    public List<Board> getBoardList() {
-        return (List<Board>) boardRepository.findAll();
+    @Transactional
+    public List<Board> getBoardPage(Long after, int limit) {
+        return boardRepository.findByIdBoardGreaterThanOrderByIdBoard(after, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Recorre los tableros con ID mayor al cursor dado, ordenados por ID, sin cargarlos todos en memoria.
+     * Después de entregar cada tablero se limpia el contexto de persistencia, junto con lo que se cargó con él.
+     * @param after el ID a partir del cual se recorren los tableros
+     * @param action la acción que recibe cada tablero
+     */
+    @Override
+    @Transactional
+    public void streamBoards(Long after, Consumer<? super Board> action) {
+        try (Stream<Board> boards = boardRepository.streamAfter(after)) {
+            boards.forEach(board -> {
+                action.accept(board);
+                entityManager.clear();
+            });
+        }
     }
 
     /**
@@ -42,12 +119,14 @@ public class BoardService implements IBoard {
 
     /**
      * Crea un nuevo tablero y lo asocia a un jugador existente.
+     * Si el jugador ya está en un juego, el tablero queda en ese juego y, si repite otro tablero del juego,
+     * sus números se reemplazan por los de un tablero que no se repite.
      * @param board el objeto Board que representa el nuevo tablero
-     * @param row1 la primera fila del tablero
-     * @param row2 la segunda fila del tablero
-     * @param row3 la tercera fila del tablero
-     * @param row4 la cuarta fila del tablero
-     * @param row5 la quinta fila del tablero
+     * @param column1 la columna B del tablero
+     * @param column2 la columna I del tablero
+     * @param column3 la columna N del tablero
+     * @param column4 la columna G del tablero
+     * @param column5 la columna O del tablero
      * @param idGamer el identificador único del jugador que creó el tablero
      * @return el objeto Board creado
      */
@@ -58,33 +137,166 @@ public class BoardService implements IBoard {
                            List<Integer> column4, List<Integer> column5,
                            Long idGamer) {
         board.setGamerId(idGamer);
-        board.setNumberB1(column1.get(0));
-        board.setNumberI1(column2.get(0));
-        board.setNumberN1(column3.get(0));
-        board.setNumberG1(column4.get(0));
-        board.setNumberO1(column5.get(0));
-        board.setNumberB2(column1.get(1));
-        board.setNumberI2(column2.get(1));
-        board.setNumberN2(column3.get(1));
-        board.setNumberG2(column4.get(1));
-        board.setNumberO2(column5.get(1));
-        board.setNumberB3(column1.get(2));
-        board.setNumberI3(column2.get(2));
-        board.setNumberN3(column3.get(2));
-        board.setNumberG3(column4.get(2));
-        board.setNumberO3(column5.get(2));
-        board.setNumberB4(column1.get(3));
-        board.setNumberI4(column2.get(3));
-        board.setNumberN4(column3.get(3));
-        board.setNumberG4(column4.get(3));
-        board.setNumberO4(column5.get(3));
-        board.setNumberB5(column1.get(4));
-        board.setNumberI5(column2.get(4));
-        board.setNumberN5(column3.get(4));
-        board.setNumberG5(column4.get(4));
-        board.setNumberO5(column5.get(4));
+        List<List<Integer>> columns = List.of(column1, column2, column3, column4, column5);
+        int[] numbers = new int[columns.size() * columns.size()];
+        for (int row = 0; row < columns.size(); row++) {
+            for (int column = 0; column < columns.size(); column++) {
+                numbers[row * columns.size() + column] = columns.get(column).get(row);
+            }
+        }
+        board.setNumbers(numbers);
+        bindToGame(findGameOfGamer(idGamer), board);
 
-        return boardRepository.save(board);
+        return gameMetricsService.recordBoard(() -> boardRepository.save(board));
+    }
+
+    /**
+     * Genera y guarda varios tableros para un juego en una sola transacción.
+     * Ningún tablero se repite dentro del juego: si la huella de un tablero nuevo ya existe, se genera otro.
+     * Si no se indica juego, los tableros quedan libres para asignarse a cualquier jugador.
+     * Los tableros se insertan en lotes JDBC y el contexto de persistencia se vacía después de cada lote
+     * para que la memoria no crezca con la cantidad de tableros.
+     * Solo se consulta si el juego existe cuando aún no se tienen en memoria las huellas de sus tableros.
+     * @param idGame el identificador único del juego, o null para tableros libres
+     * @param count la cantidad de tableros a generar
+     * @return la lista de tableros creados, o null si el juego no existe
+     */
+    @Transactional
+    public List<Board> postBoards(Long idGame, int count) {
+        if (idGame != null && !fingerprintsByGame.containsKey(idGame) && !gameRepository.existsById(idGame)) {
+            return null;
+        }
+        CreateBoard createBoard = new CreateBoard();
+        LongHashSet fingerprints = idGame != null ? fingerprints(idGame) : null;
+        List<Board> boards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Board board = new Board();
+            board.setGameId(idGame);
+            board.setNumbers(fingerprints != null ? uniqueCard(createBoard, fingerprints) : createBoard.newCard());
+            entityManager.persist(board);
+            boards.add(board);
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return boards;
+    }
+
+    /**
+     * Genera los números de un tablero que no se repite en el juego dado y registra su huella en el juego.
+     * @param idGame el identificador único del juego, o null si el tablero no pertenece a un juego
+     * @return los números del tablero en orden de filas
+     */
+    public int[] uniqueCard(Long idGame) {
+        CreateBoard createBoard = new CreateBoard();
+        return idGame != null ? uniqueCard(createBoard, fingerprints(idGame)) : createBoard.newCard();
+    }
+
+    /**
+     * Relaciona un tablero con el juego en el que lo recibe un jugador y registra su huella en el juego.
+     * Si otro tablero del juego ya tiene la misma huella, los números del tablero se reemplazan por los de
+     * un tablero nuevo que no se repite. Un tablero que ya pertenece al juego no se vuelve a registrar.
+     * Debe llamarse antes de guardar el cambio de juego del jugador, para que la huella no se cuente dos veces
+     * si las huellas del juego aún no están en memoria. Los cambios del tablero se guardan con la transacción.
+     * @param idGame el identificador único del juego, o null si el jugador no está en un juego
+     * @param board el tablero que recibe el jugador
+     * @return verdadero si los números del tablero se reemplazaron
+     */
+    @Transactional
+    public boolean bindToGame(Long idGame, Board board) {
+        if (idGame == null || idGame.equals(board.getGameId())) {
+            return false;
+        }
+        boolean replaced = !reserveFingerprint(idGame, board.getNumbers());
+        if (replaced) {
+            board.setNumbers(uniqueCard(idGame));
+        }
+        board.setGameId(idGame);
+        if (board.getIdBoard() != null) {
+            evictEtag(board.getIdBoard());
+        }
+        return replaced;
+    }
+
+    /**
+     * Registra la huella de un tablero en el juego dado, si ningún otro tablero del juego la tiene.
+     * @param idGame el identificador único del juego
+     * @param numbers los números del tablero en orden de filas
+     * @return verdadero si la huella quedó registrada, falso si ya existía en el juego
+     */
+    @Transactional
+    public boolean reserveFingerprint(Long idGame, int[] numbers) {
+        LongHashSet fingerprints = fingerprints(idGame);
+        synchronized (fingerprints) {
+            return fingerprints.add(BoardMask.fingerprint(numbers));
+        }
+    }
+
+    /**
+     * Busca el juego en el que está un jugador.
+     * @param idGamer el identificador único del jugador, o null
+     * @return el identificador único del juego, o null si el jugador no está en un juego
+     */
+    @Transactional
+    public Long findGameOfGamer(Long idGamer) {
+        return idGamer == null ? null : gamerRepository.findGameId(idGamer).orElse(null);
+    }
+
+    /**
+     * Genera un tablero cuya huella no esté en el conjunto del juego y la agrega al conjunto.
+     * @param createBoard el generador de tableros
+     * @param fingerprints las huellas de los tableros del juego
+     * @return los números del tablero en orden de filas
+     */
+    private int[] uniqueCard(CreateBoard createBoard, LongHashSet fingerprints) {
+        synchronized (fingerprints) {
+            return createBoard.newUniqueCard(fingerprints);
+        }
+    }
+
+    /**
+     * Retorna las huellas de los tableros de un juego, cargándolas de la base de datos la primera vez.
+     * @param idGame el identificador único del juego
+     * @return el conjunto de huellas del juego
+     */
+    private LongHashSet fingerprints(Long idGame) {
+        return fingerprintsByGame.computeIfAbsent(idGame, this::loadFingerprints);
+    }
+
+    /**
+     * Carga las huellas de los tableros que ya tiene un juego en la base de datos.
+     * @param idGame el identificador único del juego
+     * @return el conjunto de huellas del juego
+     */
+    private LongHashSet loadFingerprints(Long idGame) {
+        List<byte[]> cells = boardRepository.findCellsByGame(idGame);
+        LongHashSet fingerprints = new LongHashSet(Math.max(cells.size(), 1024));
+        Board board = new Board();
+        for (byte[] packed : cells) {
+            board.setCells(packed);
+            fingerprints.add(BoardMask.fingerprint(board.getNumbers()));
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Libera las huellas en memoria de los tableros de un juego.
+     * @param idGame el identificador único del juego
+     */
+    public void evictFingerprints(Long idGame) {
+        fingerprintsByGame.remove(idGame);
+    }
+
+    /**
+     * Libera las huellas de un juego cuando el juego finaliza, sin importar quién lo finalizó.
+     * @param event el evento del juego finalizado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameFinished(GameFinishedEvent event) {
+        evictFingerprints(event.idGame());
     }
 
     /**
@@ -97,6 +309,7 @@ public class BoardService implements IBoard {
     @Transactional
     public Board putBoard(Long id, Board board) {
         board.setIdBoard(id);
+        evictEtag(id);
         return boardRepository.save(board);
     }
 
@@ -108,6 +321,39 @@ public class BoardService implements IBoard {
     @Transactional
     public void deleteBoard(Board board) {
         boardRepository.delete(board);
+        evictEtag(board.getIdBoard());
+    }
+
+    /**
+     * Busca en memoria el ETag de un tablero ya consultado, sin consultar la base de datos.
+     * @param id el identificador único del tablero
+     * @return un objeto Optional con el ETag, o vacío si el tablero no se ha consultado
+     */
+    public Optional<String> findEtag(Long id) {
+        return Optional.ofNullable(etags.get(id));
+    }
+
+    /**
+     * Calcula el ETag fuerte de un tablero a partir de su ID, sus números, su jugador y su juego,
+     * y lo guarda en memoria para las siguientes consultas.
+     * @param board el tablero
+     * @return el ETag del tablero, entre comillas
+     */
+    public String etag(Board board) {
+        String etag = "\"" + board.getIdBoard()
+                + "-" + Long.toHexString(BoardMask.fingerprint(board.getNumbers()))
+                + "-" + board.getGamerId()
+                + "-" + board.getGameId() + "\"";
+        etags.put(board.getIdBoard(), etag);
+        return etag;
+    }
+
+    /**
+     * Descarta el ETag en memoria de un tablero que cambió.
+     * @param id el identificador único del tablero
+     */
+    public void evictEtag(Long id) {
+        etags.remove(id);
     }
 
     /**
@@ -0,0 +1,70 @@
+package com.sofka.bingo.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Servicio CacheStatsService expone los aciertos y fallos de la caché de segundo nivel de Hibernate,
+ * en total y por región (status, board y finished-game). Las estadísticas solo se recolectan con el perfil
+ * "cache-stats", porque su registro tiene un costo en cada consulta.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Service
+public class CacheStatsService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Indica si Hibernate está recolectando las estadísticas.
+     * @return verdadero si las estadísticas están activas
+     */
+    public boolean isEnabled() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics().isStatisticsEnabled();
+    }
+
+    /**
+     * Retorna las estadísticas de la caché de segundo nivel.
+     * @return las estadísticas totales, en la clave "total", y las de cada región, indexadas por nombre de región
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        stats.put("total", stats(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount()));
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            Map<String, Object> regionStats = stats(regionStatistics.getHitCount(),
+                    regionStatistics.getMissCount(),
+                    regionStatistics.getPutCount());
+            regionStats.put("elements", regionStatistics.getElementCountInMemory());
+            stats.put(region, regionStats);
+        }
+        return stats;
+    }
+
+    /**
+     * Arma las estadísticas de una caché con su tasa de aciertos.
+     * @param hits la cantidad de aciertos
+     * @param misses la cantidad de fallos
+     * @param puts la cantidad de elementos guardados
+     * @return las estadísticas indexadas por nombre
+     */
+    private Map<String, Object> stats(long hits, long misses, long puts) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("puts", puts);
+        stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return stats;
+    }
+}
@@ -0,0 +1,133 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.utility.ClaimArbiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio ClaimArbitrationService decide el ganador de cada juego entre las reclamaciones válidas
+ * que llegan al mismo tiempo, tanto las de los jugadores como los ganadores que detecta el ciclo del juego.
+ * La primera reclamación gana y abre la ventana de empate ({@link ClaimArbiter});
+ * al cerrarse la ventana se termina el ciclo del juego y se registran, en una sola transacción,
+ * el ganador, el estado del juego y el estado de todos sus jugadores.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Slf4j
+@Service
+public class ClaimArbitrationService {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameLoopService gameLoopService;
+
+    @Autowired
+    private ScheduledExecutorService gameScheduler;
+
+    @Autowired
+    private GameMetricsService gameMetricsService;
+
+    @Value("${bingo.claims.tie-window-ms:250}")
+    private long tieWindowMs;
+
+    @Value("${bingo.claims.retention-ms:300000}")
+    private long retentionMs;
+
+    /**
+     * Árbitro de las reclamaciones de cada juego, indexado por ID del juego. Se conserva un tiempo
+     * después de registrar los ganadores para que las reclamaciones tardías pierdan.
+     */
+    private final Map<Long, ClaimArbiter> arbiters = new ConcurrentHashMap<>();
+
+    /**
+     * Registra la reclamación válida de un usuario. La primera reclamación de un juego programa el registro
+     * de los ganadores al cerrarse la ventana de empate.
+     * @param idGame el ID del juego
+     * @param user el nombre de usuario que reclama
+     * @return el resultado de la reclamación
+     */
+    public ClaimArbiter.Outcome claim(Long idGame, String user) {
+        ClaimArbiter.Outcome outcome = arbitrate(idGame, user);
+        gameMetricsService.recordClaim(GameMetricsService.ClaimResult.valueOf(outcome.name()));
+        return outcome;
+    }
+
+    /**
+     * Registra los ganadores que detectó el ciclo del juego al sacar una balota, como si cada uno hubiera reclamado.
+     * Así quedan registrados igual que los ganadores de las reclamaciones: en el juego y con el estado "Ganador",
+     * y el resto de los jugadores con el estado "Conectado".
+     * @param idGame el ID del juego
+     * @param winners los nombres de usuario de los ganadores, en el orden en que completaron su línea
+     */
+    public void claimDetected(Long idGame, List<String> winners) {
+        winners.forEach(user -> arbitrate(idGame, user));
+    }
+
+    /**
+     * Indica si un usuario está entre los ganadores de un juego que aún se conservan en memoria.
+     * @param idGame el ID del juego
+     * @param user el nombre de usuario
+     * @return verdadero si el usuario ganó o empató
+     */
+    public boolean isWinner(Long idGame, String user) {
+        ClaimArbiter arbiter = arbiters.get(idGame);
+        return arbiter != null && arbiter.getWinners().contains(user);
+    }
+
+    /**
+     * Retorna los ganadores definitivos de un juego, que se completan al registrarse en la base de datos.
+     * @param idGame el ID del juego
+     * @return el futuro con los ganadores, o un futuro completado con una lista vacía si no hay reclamaciones
+     */
+    public CompletableFuture<List<String>> settled(Long idGame) {
+        ClaimArbiter arbiter = arbiters.get(idGame);
+        return arbiter == null ? CompletableFuture.completedFuture(List.of()) : arbiter.getSettled();
+    }
+
+    /**
+     * Pasa la reclamación de un usuario por el árbitro del juego. La primera reclamación programa el registro
+     * de los ganadores al cerrarse la ventana de empate.
+     * @param idGame el ID del juego
+     * @param user el nombre de usuario que reclama
+     * @return el resultado de la reclamación
+     */
+    private ClaimArbiter.Outcome arbitrate(Long idGame, String user) {
+        ClaimArbiter arbiter = arbiters.computeIfAbsent(idGame, id -> new ClaimArbiter(tieWindowMs));
+        ClaimArbiter.Outcome outcome = arbiter.claim(user, System.currentTimeMillis());
+        if (outcome == ClaimArbiter.Outcome.WON && arbiter.markScheduled()) {
+            gameScheduler.schedule(() -> settle(idGame, arbiter), tieWindowMs, TimeUnit.MILLISECONDS);
+        }
+        return outcome;
+    }
+
+    /**
+     * Cierra la ventana de empate, detiene el ciclo del juego, registra los ganadores y los publica.
+     * El registro de los ganadores es el único paso que deja el juego "Finalizado".
+     * @param idGame el ID del juego
+     * @param arbiter el árbitro del juego
+     */
+    private void settle(Long idGame, ClaimArbiter arbiter) {
+        List<String> winners = arbiter.close();
+        try {
+            gameLoopService.stopForWinners(idGame);
+            List<String> recorded = gameService.settleWinners(idGame, winners);
+            gameLoopService.announceWinners(idGame, recorded);
+            arbiter.getSettled().complete(recorded);
+        } catch (Exception exc) {
+            log.error("Error al registrar los ganadores del juego {}", idGame, exc);
+            arbiter.getSettled().completeExceptionally(exc);
+        }
+        gameScheduler.schedule(() -> arbiters.remove(idGame, arbiter), retentionMs, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,65 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.Draw;
+import com.sofka.bingo.repository.MoveRepository;
+import com.sofka.bingo.utility.DrawRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio DrawFeedService entrega a los clientes que se unen tarde o se reconectan solo las balotas
+ * que se perdieron. Las últimas balotas de cada juego activo se guardan en un búfer circular ({@link DrawRing});
+ * cuando el búfer no las cubre, se consultan por el índice (gam_id, mov_seq) de la tabla move.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Service
+public class DrawFeedService {
+
+    @Autowired
+    private MoveRepository moveRepository;
+
+    @Value("${bingo.draw-feed.capacity:75}")
+    private int capacity;
+
+    /**
+     * Búfer de las últimas balotas de cada juego, indexado por ID del juego.
+     */
+    private final Map<Long, DrawRing> rings = new ConcurrentHashMap<>();
+
+    /**
+     * Registra una balota sacada en el búfer de su juego.
+     * @param idGame el ID del juego
+     * @param draw la balota
+     */
+    public void record(Long idGame, Draw draw) {
+        rings.computeIfAbsent(idGame, id -> new DrawRing(capacity)).add(draw);
+    }
+
+    /**
+     * Retorna las balotas de un juego con posición mayor a la dada, en orden de posición.
+     * @param idGame el ID del juego
+     * @param seq la posición de la última balota que tiene el cliente, 0 si no tiene ninguna
+     * @return la lista de balotas que le faltan al cliente
+     */
+    public List<Draw> since(Long idGame, int seq) {
+        DrawRing ring = rings.get(idGame);
+        if (ring != null) {
+            return ring.since(seq).orElseGet(() -> moveRepository.findDrawsSince(idGame, seq));
+        }
+        return moveRepository.findDrawsSince(idGame, seq);
+    }
+
+    /**
+     * Libera el búfer en memoria de un juego.
+     * @param idGame el ID del juego
+     */
+    public void evict(Long idGame) {
+        rings.remove(idGame);
+    }
+}
@@ -0,0 +1,124 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.StatusType;
+import com.sofka.bingo.utility.DrawJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio DrawJournalService escribe en el diario del nodo ({@link DrawJournal}) los eventos de los juegos activos,
+ * de modo que las balotas que aún no llegan a la base de datos se pueden recuperar si el servidor se cae.
+ * El diario se baja a disco cada cierto intervalo y se puede desactivar por configuración.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Slf4j
+@Service
+public class DrawJournalService {
+
+    @Autowired
+    private ScheduledExecutorService flushScheduler;
+
+    @Value("${bingo.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bingo.journal.path:data/draw-journal.bin}")
+    private String path;
+
+    @Value("${bingo.journal.capacity-bytes:16777216}")
+    private int capacity;
+
+    @Value("${bingo.journal.force-interval-ms:200}")
+    private long forceIntervalMs;
+
+    private DrawJournal journal;
+
+    @PostConstruct
+    private void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = new DrawJournal(Path.of(path), capacity);
+        flushScheduler.scheduleWithFixedDelay(journal::force, forceIntervalMs, forceIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Escribe en el diario una balota sacada.
+     * @param idGame el ID del juego
+     * @param number el número de la balota
+     */
+    public void draw(Long idGame, int number) {
+        append(DrawJournal.Type.DRAW, idGame, number, null);
+    }
+
+    /**
+     * Escribe en el diario un cambio de estado.
+     * @param idGame el ID del juego
+     * @param status el nuevo estado
+     */
+    public void status(Long idGame, StatusType status) {
+        append(DrawJournal.Type.STATUS, idGame, status.getId().intValue(), null);
+    }
+
+    /**
+     * Escribe en el diario el ganador de un juego.
+     * @param idGame el ID del juego
+     * @param winner el nombre de usuario del ganador
+     */
+    public void claim(Long idGame, String winner) {
+        append(DrawJournal.Type.CLAIM, idGame, 0, winner);
+    }
+
+    /**
+     * Marca en el diario que los eventos de un juego ya están en la base de datos.
+     * @param idGame el ID del juego
+     */
+    public void closed(Long idGame) {
+        append(DrawJournal.Type.CLOSED, idGame, 0, null);
+    }
+
+    /**
+     * Retorna los eventos de los juegos que quedaron abiertos en el diario, en el orden en que se escribieron.
+     * @return la lista de eventos por reproducir, vacía si el diario está desactivado
+     */
+    public List<DrawJournal.Entry> pending() {
+        return journal == null ? Collections.emptyList() : journal.replay();
+    }
+
+    @PreDestroy
+    private void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Escribe un evento en el diario. Un error al escribir se registra sin interrumpir el juego,
+     * ya que los cambios igual se escriben en la base de datos.
+     * @param type el tipo de evento
+     * @param idGame el ID del juego
+     * @param value el número de la balota o el ID del estado
+     * @param text el usuario que reclama, o null
+     */
+    private void append(DrawJournal.Type type, Long idGame, int value, String text) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(type, idGame, value, text);
+        } catch (IOException exc) {
+            log.error("No se pudo escribir en el diario el evento {} del juego {}", type, idGame, exc);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.sofka.bingo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sofka.bingo.utility.GameEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Servicio GameBroadcastService transmite por WebSocket los eventos de cada juego a su tópico
+ * {@code /topic/game/{id}}: balotas, cambios en la lista de jugadores, conteo regresivo, estados y ganadores.
+ * Cada evento se serializa una sola vez y los mismos bytes se envían a todos los suscriptores.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Slf4j
+@Service
+public class GameBroadcastService {
+
+    /**
+     * Prefijo de los tópicos de los juegos.
+     */
+    public static final String TOPIC_PREFIX = "/topic/game/";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Transmite un evento de juego a los suscriptores del tópico del juego.
+     * Los eventos publicados dentro de una transacción se transmiten cuando esta se confirma.
+     * @param event el evento del juego
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void broadcast(GameEvent event) {
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(event);
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            accessor.setLeaveMutable(true);
+            Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+            messagingTemplate.send(TOPIC_PREFIX + event.idGame(), message);
+        } catch (Exception exc) {
+            log.error("Error al transmitir el evento {} del juego {}", event.type(), event.idGame(), exc);
+        }
+    }
+}
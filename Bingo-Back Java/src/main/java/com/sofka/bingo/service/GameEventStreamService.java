@@ -0,0 +1,243 @@
+package com.sofka.bingo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sofka.bingo.domain.Draw;
+import com.sofka.bingo.domain.GameSummary;
+import com.sofka.bingo.utility.GameEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servicio GameEventStreamService transmite por Server-Sent Events los eventos de cada juego a los clientes
+ * que no usan WebSocket, como pantallas y transmisiones. Cada conexión tiene una cola acotada que vacía
+ * un grupo pequeño de hilos, de modo que una conexión inactiva no ocupa un hilo y una conexión lenta no
+ * frena el juego: si su cola se llena, la conexión se cierra y el cliente se reconecta con {@code Last-Event-ID}.
+ * El ID de cada evento de balota es su posición en el juego.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Slf4j
+@Service
+public class GameEventStreamService {
+
+    @Autowired
+    private DrawFeedService drawFeedService;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ScheduledExecutorService gameScheduler;
+
+    @Autowired
+    private ExecutorService sseExecutor;
+
+    @Value("${bingo.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${bingo.sse.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${bingo.sse.buffer-size:256}")
+    private int bufferSize;
+
+    /**
+     * Conexiones abiertas de cada juego, indexadas por ID del juego.
+     */
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    private void init() {
+        gameScheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre una conexión a los eventos de un juego. La conexión recibe primero el resumen del juego
+     * y las balotas posteriores a la última que tiene el cliente, y luego los eventos en vivo.
+     * Como la conexión se registra antes de enviar las balotas anteriores, una balota puede llegar
+     * dos veces; el cliente la reconoce por su ID.
+     * @param idGame el ID del juego
+     * @param lastEventId la posición de la última balota que recibió el cliente, 0 si no tiene ninguna
+     * @return la conexión, o vacío si el juego no existe
+     */
+    public Optional<SseEmitter> subscribe(Long idGame, int lastEventId) {
+        Optional<GameSummary> summary = gameService.findGameSummary(idGame);
+        if (summary.isEmpty()) {
+            return Optional.empty();
+        }
+        Subscriber subscriber = new Subscriber(idGame, new SseEmitter(timeoutMs), bufferSize);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> close(subscriber));
+        subscriber.emitter.onError(exc -> remove(subscriber));
+        subscribers.computeIfAbsent(idGame, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        offer(subscriber, event("summary", summary.get()));
+        for (Draw draw : drawFeedService.since(idGame, lastEventId)) {
+            offer(subscriber, event(GameEvent.Type.DRAW.name().toLowerCase(), draw).id(String.valueOf(draw.seq())));
+        }
+        return Optional.of(subscriber.emitter);
+    }
+
+    /**
+     * Transmite un evento de juego a las conexiones abiertas del juego.
+     * El evento se serializa una sola vez para todas las conexiones.
+     * @param event el evento del juego
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(GameEvent event) {
+        Set<Subscriber> targets = subscribers.get(event.idGame());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        try {
+            String data = objectMapper.writeValueAsString(event.payload());
+            String id = event.payload() instanceof Map<?, ?> payload && payload.get("seq") != null
+                    ? String.valueOf(payload.get("seq")) : null;
+            for (Subscriber subscriber : targets) {
+                SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                        .name(event.type().name().toLowerCase())
+                        .data(data, MediaType.APPLICATION_JSON);
+                offer(subscriber, id == null ? builder : builder.id(id));
+            }
+        } catch (Exception exc) {
+            log.error("Error al transmitir por SSE el evento {} del juego {}", event.type(), event.idGame(), exc);
+        }
+    }
+
+    /**
+     * Retorna la cantidad de conexiones abiertas.
+     * @return la cantidad de conexiones
+     */
+    public int size() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Envía un comentario a todas las conexiones para mantenerlas abiertas y detectar las que se cayeron.
+     */
+    private void heartbeat() {
+        for (Set<Subscriber> targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                offer(subscriber, SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    /**
+     * Construye un evento con sus datos serializados a JSON.
+     * @param name el nombre del evento
+     * @param payload los datos del evento
+     * @return el evento
+     * @throws IllegalStateException si los datos no se pueden serializar
+     */
+    private SseEmitter.SseEventBuilder event(String name, Object payload) {
+        try {
+            return SseEmitter.event().name(name).data(objectMapper.writeValueAsString(payload), MediaType.APPLICATION_JSON);
+        } catch (IOException exc) {
+            throw new IllegalStateException(exc);
+        }
+    }
+
+    /**
+     * Agrega un evento a la cola de una conexión y programa su envío. Si la cola está llena, la conexión se cierra.
+     * @param subscriber la conexión
+     * @param event el evento
+     */
+    private void offer(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            log.debug("Se cierra una conexión SSE lenta del juego {}", subscriber.idGame);
+            close(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sseExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Envía los eventos en cola de una conexión. Solo un hilo vacía la cola de una conexión a la vez.
+     * @param subscriber la conexión
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(event);
+            }
+        } catch (Exception exc) {
+            close(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (!subscriber.closed && !subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            sseExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Cierra una conexión y la retira de su juego.
+     * @param subscriber la conexión
+     */
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    /**
+     * Retira una conexión de su juego.
+     * @param subscriber la conexión
+     */
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.queue.clear();
+        subscribers.computeIfPresent(subscriber.idGame, (id, targets) -> {
+            targets.remove(subscriber);
+            return targets.isEmpty() ? null : targets;
+        });
+    }
+
+    /**
+     * Conexión abierta a los eventos de un juego, con su cola de eventos por enviar.
+     */
+    private static class Subscriber {
+
+        private final Long idGame;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private Subscriber(Long idGame, SseEmitter emitter, int bufferSize) {
+            this.idGame = idGame;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.Game;
+import com.sofka.bingo.domain.Move;
+import com.sofka.bingo.domain.StatusType;
+import com.sofka.bingo.utility.GameEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio GameLoopService mueve el ciclo de cada juego dentro del servidor: el conteo regresivo,
+ * la sacada de balotas cada cierto intervalo y la pausa mientras se evalúa una reclamación.
+ * Todos los juegos comparten el mismo ejecutor programado, por lo que una sala no ocupa un hilo.
+ * Cada paso del ciclo se publica como un {@link GameEvent}.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Slf4j
+@Service
+public class GameLoopService {
+
+    @Autowired
+    private ScheduledExecutorService gameScheduler;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private MoveService moveService;
+
+    @Autowired
+    private StatusRegistry statusRegistry;
+
+    @Autowired
+    private GameStateService gameStateService;
+
+    @Autowired
+    private DrawFeedService drawFeedService;
+
+    @Autowired
+    private WinnerDetectionService winnerDetectionService;
+
+    /**
+     * Se inyecta de forma diferida porque el arbitraje también termina el ciclo de los juegos.
+     */
+    @Lazy
+    @Autowired
+    private ClaimArbitrationService claimArbitrationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${bingo.game-loop.countdown-seconds:10}")
+    private int countdownSeconds;
+
+    @Value("${bingo.game-loop.draw-interval-ms:3000}")
+    private long drawIntervalMs;
+
+    @Value("${bingo.game-loop.evaluating-pause-ms:5000}")
+    private long evaluatingPauseMs;
+
+    /**
+     * Ciclos de los juegos activos, indexados por ID del juego.
+     */
+    private final Map<Long, GameLoop> loops = new ConcurrentHashMap<>();
+
+    /**
+     * Inicia el ciclo de un juego: su estado se carga en memoria, el juego pasa a "Iniciado" y comienza el conteo regresivo.
+     * Solo se inicia un juego "En espera", para que un juego en curso o finalizado no vuelva a empezar.
+     * @param idGame el ID del juego
+     * @return verdadero si el ciclo se inició, falso si el juego no existe, no está "En espera" o ya tenía un ciclo activo
+     */
+    public boolean start(Long idGame) {
+        GameLoop loop = new GameLoop(idGame, countdownSeconds);
+        if (loops.putIfAbsent(idGame, loop) != null) {
+            return false;
+        }
+        synchronized (loop) {
+            boolean waiting = gameService.findGameSummary(idGame)
+                    .map(summary -> StatusType.GAME_WAITING.is(summary.idStatus()))
+                    .orElse(false);
+            if (!waiting) {
+                loops.remove(idGame, loop);
+                return false;
+            }
+            gameStateService.open(idGame);
+            changeStatus(idGame, StatusType.GAME_STARTED);
+            loop.task = gameScheduler.scheduleAtFixedRate(() -> tick(loop), 0, 1, TimeUnit.SECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Indica si un juego tiene un ciclo activo.
+     * @param idGame el ID del juego
+     * @return verdadero si el ciclo del juego está activo
+     */
+    public boolean isRunning(Long idGame) {
+        return loops.containsKey(idGame);
+    }
+
+    /**
+     * Retorna la cantidad de juegos con un ciclo activo.
+     * @return la cantidad de juegos activos
+     */
+    public int running() {
+        return loops.size();
+    }
+
+    /**
+     * Pausa la sacada de balotas de un juego mientras se evalúa una reclamación.
+     * El juego pasa a "Evaluando" y, si nadie gana, vuelve a "En curso" al terminar la pausa.
+     * @param idGame el ID del juego
+     * @return verdadero si el juego quedó en pausa
+     */
+    public boolean pauseForClaim(Long idGame) {
+        GameLoop loop = loops.get(idGame);
+        if (loop == null) {
+            return false;
+        }
+        synchronized (loop) {
+            if (loop.finished || loop.evaluating || loop.remaining >= 0) {
+                return false;
+            }
+            loop.evaluating = true;
+            loop.task.cancel(false);
+            changeStatus(idGame, StatusType.GAME_EVALUATING);
+            loop.task = gameScheduler.schedule(() -> resume(loop), evaluatingPauseMs, TimeUnit.MILLISECONDS);
+            return true;
+        }
+    }
+
+    /**
+     * Detiene el ciclo de un juego que ganó una reclamación y escribe y libera su estado en memoria,
+     * sin cambiar su estado: el estado "Finalizado" y los ganadores se registran después, en una sola
+     * transacción, con {@link GameService#settleWinners(Long, List)}.
+     * @param idGame el ID del juego
+     */
+    public void stopForWinners(Long idGame) {
+        GameLoop loop = loops.get(idGame);
+        if (loop == null) {
+            return;
+        }
+        synchronized (loop) {
+            stop(loop);
+        }
+    }
+
+    /**
+     * Publica que un juego finalizó con los ganadores ya registrados.
+     * @param idGame el ID del juego
+     * @param winners los nombres de usuario de los ganadores, en orden de llegada
+     */
+    public void announceWinners(Long idGame, List<String> winners) {
+        publish(idGame, GameEvent.Type.STATUS, statusRegistry.get(StatusType.GAME_FINISHED));
+        publish(idGame, GameEvent.Type.WINNER, winners);
+    }
+
+    /**
+     * Paso del conteo regresivo: publica el tiempo restante y, al llegar a cero, comienza a sacar balotas.
+     * @param loop el ciclo del juego
+     */
+    private void tick(GameLoop loop) {
+        synchronized (loop) {
+            try {
+                if (loop.finished) {
+                    return;
+                }
+                publish(loop.idGame, GameEvent.Type.TIMER,
+                        Map.of("minutos", loop.remaining / 60, "segundos", loop.remaining % 60));
+                if (loop.remaining-- > 0) {
+                    return;
+                }
+                loop.task.cancel(false);
+                changeStatus(loop.idGame, StatusType.GAME_IN_PROGRESS);
+                scheduleDraws(loop, drawIntervalMs);
+            } catch (Exception exc) {
+                log.error("Error en el conteo del juego {}", loop.idGame, exc);
+            }
+        }
+    }
+
+    /**
+     * Saca una balota del juego, la publica y termina el juego si se agotó el mazo. Si la balota completa
+     * la línea de algún jugador, el juego se pausa y los ganadores pasan al arbitraje, que termina el juego
+     * y registra los ganadores al cerrar la ventana de empate.
+     * @param loop el ciclo del juego
+     */
+    private void draw(GameLoop loop) {
+        synchronized (loop) {
+            try {
+                if (loop.finished || loop.evaluating) {
+                    return;
+                }
+                Game game = new Game();
+                game.setIdGame(loop.idGame);
+                Move move = moveService.postMove(new Move(), game);
+                if (move == null) {
+                    // El mazo agotado ya dejó el juego "Finalizado"; el ciclo solo se detiene y lo anuncia.
+                    stop(loop);
+                    publish(loop.idGame, GameEvent.Type.STATUS, statusRegistry.get(StatusType.GAME_FINISHED));
+                    return;
+                }
+                loop.draws++;
+                publish(loop.idGame, GameEvent.Type.DRAW,
+                        Map.of("num", move.getNumber(), "lett", move.getLetter(), "count", loop.draws, "seq", move.getSeq()));
+                List<String> winners = winnerDetectionService.winners(loop.idGame);
+                if (!winners.isEmpty()) {
+                    pauseForClaim(loop.idGame);
+                    claimArbitrationService.claimDetected(loop.idGame, winners);
+                }
+            } catch (Exception exc) {
+                log.error("Error al sacar una balota del juego {}", loop.idGame, exc);
+            }
+        }
+    }
+
+    /**
+     * Reanuda la sacada de balotas de un juego al terminar la pausa de evaluación.
+     * @param loop el ciclo del juego
+     */
+    private void resume(GameLoop loop) {
+        synchronized (loop) {
+            try {
+                if (loop.finished) {
+                    return;
+                }
+                loop.evaluating = false;
+                changeStatus(loop.idGame, StatusType.GAME_IN_PROGRESS);
+                scheduleDraws(loop, 0);
+            } catch (Exception exc) {
+                log.error("Error al reanudar el juego {}", loop.idGame, exc);
+            }
+        }
+    }
+
+    /**
+     * Programa la sacada periódica de balotas de un juego.
+     * @param loop el ciclo del juego
+     * @param delay el tiempo de espera antes de la primera balota, en milisegundos
+     */
+    private void scheduleDraws(GameLoop loop, long delay) {
+        loop.task = gameScheduler.scheduleWithFixedDelay(() -> draw(loop), delay, drawIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene el ciclo de un juego, escribe los cambios pendientes del juego y libera la información
+     * en memoria del juego. No cambia el estado del juego: lo finaliza quien lo terminó, el mazo agotado
+     * o el registro de los ganadores, una sola vez.
+     * @param loop el ciclo del juego
+     */
+    private void stop(GameLoop loop) {
+        if (loop.finished) {
+            return;
+        }
+        loop.finished = true;
+        loop.task.cancel(false);
+        loops.remove(loop.idGame);
+        gameStateService.close(loop.idGame);
+        drawFeedService.evict(loop.idGame);
+    }
+
+    /**
+     * Cambia el estado de un juego y publica el cambio.
+     * @param idGame el ID del juego
+     * @param status el nuevo estado
+     */
+    private void changeStatus(Long idGame, StatusType status) {
+        Game game = new Game();
+        game.setStatusGame(statusRegistry.get(status));
+        gameService.updateStatusG(idGame, game);
+        publish(idGame, GameEvent.Type.STATUS, game.getStatusGame());
+    }
+
+    /**
+     * Publica un evento de un juego.
+     * @param idGame el ID del juego
+     * @param type el tipo de evento
+     * @param payload los datos del evento
+     */
+    private void publish(Long idGame, GameEvent.Type type, Object payload) {
+        eventPublisher.publishEvent(new GameEvent(idGame, type, payload));
+    }
+
+    /**
+     * Estado del ciclo de un juego. Se modifica siempre dentro de un bloque sincronizado sobre el ciclo.
+     */
+    private static class GameLoop {
+
+        private final Long idGame;
+
+        private int remaining;
+
+        private int draws;
+
+        private boolean evaluating;
+
+        private boolean finished;
+
+        private ScheduledFuture<?> task;
+
+        private GameLoop(Long idGame, int countdownSeconds) {
+            this.idGame = idGame;
+            this.remaining = countdownSeconds;
+        }
+    }
+}
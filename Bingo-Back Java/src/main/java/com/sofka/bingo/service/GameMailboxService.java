@@ -0,0 +1,114 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.utility.StripedExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Servicio GameMailboxService ordena todos los cambios de un juego: estado, ganador, balotas y jugadores
+ * que entran o salen. Cada juego tiene un único escritor, el hilo que le corresponde por su ID dentro
+ * de un grupo de ejecutores de un solo hilo ({@link StripedExecutor}), por lo que los cambios de un juego
+ * se aplican uno tras otro sin competir por los registros de la base de datos, y los cambios de juegos
+ * distintos avanzan en paralelo según la cantidad de núcleos.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Slf4j
+@Service
+public class GameMailboxService {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bingo.game-mailbox.stripes:0}")
+    private int stripes;
+
+    private StripedExecutor executor;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    private void init() {
+        int count = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        executor = new StripedExecutor(count, "game-writer");
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Ejecuta un cambio de un juego en su escritor y espera su resultado.
+     * @param idGame el ID del juego, o null si el cambio no pertenece a ningún juego
+     * @param change el cambio
+     * @param <T> el tipo del resultado
+     * @return el resultado del cambio
+     */
+    public <T> T call(Long idGame, Supplier<T> change) {
+        return executor.call(key(idGame), change::get);
+    }
+
+    /**
+     * Ejecuta un cambio de un juego en su escritor y espera a que termine.
+     * @param idGame el ID del juego, o null si el cambio no pertenece a ningún juego
+     * @param change el cambio
+     */
+    public void run(Long idGame, Runnable change) {
+        executor.call(key(idGame), () -> {
+            change.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta un cambio de un juego en su escritor, dentro de una transacción, y espera su resultado.
+     * @param idGame el ID del juego, o null si el cambio no pertenece a ningún juego
+     * @param change el cambio
+     * @param <T> el tipo del resultado
+     * @return el resultado del cambio
+     */
+    public <T> T callInTransaction(Long idGame, Supplier<T> change) {
+        return executor.call(key(idGame), () -> transactionTemplate.execute(status -> change.get()));
+    }
+
+    /**
+     * Ejecuta un cambio de un juego en su escritor, dentro de una transacción, y espera a que termine.
+     * @param idGame el ID del juego, o null si el cambio no pertenece a ningún juego
+     * @param change el cambio
+     */
+    public void runInTransaction(Long idGame, Runnable change) {
+        executor.call(key(idGame), () -> {
+            transactionTemplate.executeWithoutResult(status -> change.run());
+            return null;
+        });
+    }
+
+    /**
+     * Encola un cambio de un juego en su escritor sin esperar a que termine. Los errores se registran.
+     * @param idGame el ID del juego
+     * @param change el cambio
+     */
+    public void execute(Long idGame, Runnable change) {
+        executor.execute(key(idGame), () -> {
+            try {
+                change.run();
+            } catch (Exception exc) {
+                log.error("Error al aplicar un cambio del juego {}", idGame, exc);
+            }
+        });
+    }
+
+    private static long key(Long idGame) {
+        return idGame == null ? 0L : idGame;
+    }
+}
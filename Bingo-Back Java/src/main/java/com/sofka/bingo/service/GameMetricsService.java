@@ -0,0 +1,142 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.StatusType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Servicio GameMetricsService registra en Micrometer los tiempos y contadores de los caminos calientes del juego:
+ * la sacada de balotas, la creación de tableros, el registro de ganadores, los cambios de estado y las reclamaciones.
+ * Los medidores se crean una sola vez, al iniciar, para que medir no cueste una búsqueda en el registro.
+ * Las métricas se exponen en "/actuator/prometheus"; los histogramas de percentiles se activan por configuración.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Service
+public class GameMetricsService {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer drawTimer;
+
+    private Counter drawnBalls;
+
+    private Timer boardTimer;
+
+    private Timer winnerTimer;
+
+    private final Map<StatusType, Timer> statusTimers = new EnumMap<>(StatusType.class);
+
+    private final Map<ClaimResult, Counter> claimCounters = new EnumMap<>(ClaimResult.class);
+
+    /**
+     * Resultados de una reclamación de ganador.
+     */
+    public enum ClaimResult {
+        WON, TIED, LATE, INVALID
+    }
+
+    @PostConstruct
+    private void init() {
+        drawTimer = Timer.builder("bingo.draw.latency")
+                .description("Tiempo de sacada de una balota, incluida la espera en el escritor del juego")
+                .register(meterRegistry);
+        drawnBalls = Counter.builder("bingo.balls.drawn")
+                .description("Balotas sacadas")
+                .register(meterRegistry);
+        boardTimer = Timer.builder("bingo.board.create")
+                .description("Tiempo de creación de un tablero")
+                .register(meterRegistry);
+        winnerTimer = Timer.builder("bingo.game.winner")
+                .description("Tiempo de registro de los ganadores de un juego")
+                .register(meterRegistry);
+        for (StatusType status : StatusType.values()) {
+            if (!status.name().startsWith("GAME_")) {
+                continue;
+            }
+            statusTimers.put(status, Timer.builder("bingo.game.status")
+                    .description("Tiempo de cambio de estado de un juego")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        for (ClaimResult result : ClaimResult.values()) {
+            claimCounters.put(result, Counter.builder("bingo.claims")
+                    .description("Reclamaciones de ganador")
+                    .tag("result", result.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Mide la sacada de una balota y la cuenta si salió una.
+     * @param draw la sacada, que retorna null si ya no quedan balotas
+     * @param <T> el tipo de la balota
+     * @return la balota sacada, o null
+     */
+    public <T> T recordDraw(Supplier<T> draw) {
+        T drawn = drawTimer.record(draw);
+        if (drawn != null) {
+            drawnBalls.increment();
+        }
+        return drawn;
+    }
+
+    /**
+     * Mide la creación de un tablero.
+     * @param create la creación del tablero
+     * @param <T> el tipo del tablero
+     * @return el tablero creado
+     */
+    public <T> T recordBoard(Supplier<T> create) {
+        return boardTimer.record(create);
+    }
+
+    /**
+     * Mide el registro de los ganadores de un juego.
+     * @param update el registro de los ganadores
+     * @param <T> el tipo del resultado
+     * @return el resultado del registro
+     */
+    public <T> T recordWinner(Supplier<T> update) {
+        return winnerTimer.record(update);
+    }
+
+    /**
+     * Mide el registro del ganador de un juego.
+     * @param update el registro del ganador
+     */
+    public void recordWinner(Runnable update) {
+        winnerTimer.record(update);
+    }
+
+    /**
+     * Mide un cambio de estado de un juego. Los estados que no son de juego no se miden.
+     * @param idStatus el ID del nuevo estado
+     * @param change el cambio de estado
+     */
+    public void recordStatus(Long idStatus, Runnable change) {
+        Timer timer = StatusType.fromId(idStatus).map(statusTimers::get).orElse(null);
+        if (timer == null) {
+            change.run();
+        } else {
+            timer.record(change);
+        }
+    }
+
+    /**
+     * Cuenta una reclamación de ganador.
+     * @param result el resultado de la reclamación
+     */
+    public void recordClaim(ClaimResult result) {
+        claimCounters.get(result).increment();
+    }
+}
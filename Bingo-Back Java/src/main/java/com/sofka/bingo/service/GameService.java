@@ -1,17 +1,31 @@
 package com.sofka.bingo.service;
 
 
+import com.sofka.bingo.domain.FinishedGame;
 import com.sofka.bingo.domain.Game;
+import com.sofka.bingo.domain.GameSummary;
 import com.sofka.bingo.domain.Status;
+import com.sofka.bingo.domain.StatusType;
 import com.sofka.bingo.repository.GameRepository;
+import com.sofka.bingo.repository.GamerRepository;
 import com.sofka.bingo.service.interfaces.IGame;
+import com.sofka.bingo.utility.GameFinishedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.security.SecureRandom;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio de GameService establece los métodos para manejar los juegos de bingo.
@@ -23,14 +37,60 @@ public class GameService implements IGame {
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private GamerRepository gamerRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private StatusRegistry statusRegistry;
+
+    @Autowired
+    private WinnerDetectionService winnerDetectionService;
+
+    @Autowired
+    private GameStateService gameStateService;
+
+    @Autowired
+    private GameMailboxService gameMailboxService;
+
+    @Autowired
+    private GameMetricsService gameMetricsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Generador de las semillas con las que se baraja el mazo de balotas de cada juego.
+     */
+    private final SecureRandom seedGenerator = new SecureRandom();
+
     /**
-     * Retorna una lista de todos los juegos disponibles en el sistema.
-     * @return una lista de objetos Game
+     * Retorna una página de resúmenes de juegos con ID mayor al cursor dado, ordenados por ID.
+     * Los resúmenes no cargan los jugadores ni las jugadas de cada juego.
+     * @param after el ID del último juego de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de juegos a retornar
+     * @return una lista de objetos GameSummary
      */
     @Override
     @Transactional
-    public List<Game> getGameList() {
-        return (List<Game>) gameRepository.findAll();
+    public List<GameSummary> getGamePage(Long after, int limit) {
+        return gameRepository.findSummaryPage(after, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Recorre los resúmenes de los juegos con ID mayor al cursor dado, ordenados por ID, sin cargarlos
+     * todos en memoria. Los resúmenes no son entidades, así que no quedan en el contexto de persistencia.
+     * @param after el ID a partir del cual se recorren los juegos
+     * @param action la acción que recibe cada resumen
+     */
+    @Override
+    @Transactional
+    public void streamGames(Long after, Consumer<? super GameSummary> action) {
+        try (Stream<GameSummary> games = gameRepository.streamSummariesAfter(after)) {
+            games.forEach(action);
+        }
     }
 
     /**
@@ -44,6 +104,61 @@ public class GameService implements IGame {
         return gameRepository.findById(id);
     }
 
+    /**
+     * Busca un juego con sus jugadores, y el tablero y estado de cada jugador, en una sola consulta.
+     * @param id el identificador único del juego a buscar
+     * @return un objeto Optional que contiene el juego completo si se encuentra, o vacío si no se encuentra
+     */
+    @Override
+    @Transactional
+    public Optional<Game> findFullGame(Long id) {
+        return gameRepository.findWithGamersByIdGame(id);
+    }
+
+    /**
+     * Busca el resumen de un juego: estado, ganador, cantidad de jugadores y de jugadas, y la última balota.
+     * Si el juego está activo, el resumen se construye desde su estado en memoria. Los resúmenes de los
+     * juegos finalizados se toman de la caché de segundo nivel; la primera vez que se consulta un juego
+     * finalizado, su resumen se carga en la caché.
+     * @param id el identificador único del juego a buscar
+     * @return un objeto Optional que contiene el resumen si se encuentra el juego, o vacío si no se encuentra
+     */
+    @Override
+    @Transactional
+    public Optional<GameSummary> findGameSummary(Long id) {
+        Optional<GameSummary> live = gameStateService.summary(id);
+        if (live.isPresent()) {
+            return live;
+        }
+        if (entityManager.getEntityManagerFactory().getCache().contains(FinishedGame.class, id)) {
+            return Optional.of(entityManager.find(FinishedGame.class, id).toSummary());
+        }
+        Optional<GameSummary> summary = gameRepository.findSummary(id);
+        if (summary.isPresent() && StatusType.GAME_FINISHED.is(summary.get().idStatus())) {
+            entityManager.find(FinishedGame.class, id);
+        }
+        return summary;
+    }
+
+    /**
+     * Busca la semilla del mazo de balotas de un juego.
+     * @param id el identificador único del juego
+     * @return un objeto Optional con la semilla, o vacío si el juego no existe o no tiene semilla
+     */
+    @Transactional
+    public Optional<Long> findSeed(Long id) {
+        return gameRepository.findSeed(id);
+    }
+
+    /**
+     * Busca los juegos "En espera" que ya tienen jugadores.
+     * @return la lista de IDs de los juegos
+     */
+    @Transactional
+    public List<Long> findWaitingGamesWithGamers() {
+        return gameRepository.findIdsWithGamersByStatus(StatusType.GAME_WAITING.getId());
+    }
+
     /**
      * Crea un nuevo juego de bingo.
      * @param game el objeto Game que representa el nuevo juego
@@ -55,6 +170,7 @@ public class GameService implements IGame {
     public Game postGame(Game game, Status status) {
         game.setCreationAt(Instant.now());
         game.setStatusGame(status);
+        game.setSeed(seedGenerator.nextLong());
         return gameRepository.save(game);
     }
 
@@ -73,26 +189,95 @@ public class GameService implements IGame {
     }
 
     /**
-     * Actualiza el estado de un juego existente.
+     * Actualiza el estado de un juego existente con una sola consulta, sin cargar el juego.
+     * Si el juego está activo, el cambio se registra en su estado en memoria y se escribe después por lotes.
+     * Cuando el juego inicia, se construye su índice de detección de ganadores; cuando finaliza, se publica
+     * un {@link GameFinishedEvent} para liberar la información en memoria del juego.
+     * El cambio se aplica en el escritor del juego, después de los cambios que llegaron antes.
      * @param id el identificador único del juego a actualizar
      * @param game el objeto Game que contiene los datos actualizados del estado del juego
+     * @throws NoSuchElementException si el juego no existe
      */
-    @Transactional
     public void updateStatusG(Long id, Game game){
-       Game gameId = findGame(id).get();
-       gameId.setUpdateAt(Instant.now());
-       gameId.setStatusGame(game.getStatusGame());
-       gameRepository.save(gameId);
+       Long idStatus = game.getStatusGame().getIdStatus();
+       gameMetricsService.recordStatus(idStatus, () -> gameMailboxService.run(id, () -> {
+           boolean live = StatusType.fromId(idStatus).map(status -> gameStateService.changeStatus(id, status)).orElse(false);
+           if (!live) {
+               gameMailboxService.runInTransaction(id, () -> {
+                   if (gameRepository.updateStatusG(id, game.getStatusGame(), Instant.now()) == 0) {
+                       throw new NoSuchElementException("No existe el juego " + id);
+                   }
+               });
+           }
+           if (StatusType.GAME_STARTED.is(idStatus) || StatusType.GAME_IN_PROGRESS.is(idStatus)) {
+               winnerDetectionService.start(id);
+           } else if (StatusType.GAME_FINISHED.is(idStatus)) {
+               eventPublisher.publishEvent(new GameFinishedEvent(id));
+           }
+       }));
     }
 
     /**
-     * Actualiza el ganador de un juego existente.
+     * Actualiza el ganador de un juego existente, solo si el juego aún no tiene ganador.
+     * Si el servidor ya detectó ganadores en el juego, se registra el primero de ellos
+     * en lugar del ganador enviado por el cliente. Si el juego está activo, el ganador se registra
+     * en su estado en memoria y se conserva el primero que se registró. El cambio se aplica en el escritor del juego.
      * @param id el identificador único del juego a actualizar
      * @param game el objeto Game que contiene los datos actualizados del ganador del juego
      */
-    @Transactional
     public void updateWinnerG(Long id, Game game){
-        gameRepository.updateWinnerG(id, game.getWinner());
+        gameMetricsService.recordWinner(() -> gameMailboxService.run(id, () -> {
+            List<String> detected = winnerDetectionService.winners(id);
+            String winner = detected.isEmpty() ? game.getWinner() : detected.get(0);
+            Optional<String> live = gameStateService.setWinner(id, winner);
+            if (live.isPresent()) {
+                game.setWinner(live.get());
+                return;
+            }
+            game.setWinner(winner);
+            gameMailboxService.runInTransaction(id, () -> {
+                if (gameRepository.updateWinnerG(id, winner) == 0) {
+                    game.setWinner(gameRepository.findWinner(id).orElse(null));
+                }
+            });
+        }));
+    }
+
+    /**
+     * Registra en una sola transacción el resultado de las reclamaciones de un juego: el primer ganador
+     * si el juego aún no tiene uno, el estado "Finalizado" del juego, el estado "Ganador" de los ganadores
+     * y el estado "Conectado" del resto de sus jugadores. La transacción corre en el escritor del juego
+     * y, al confirmarse, se publica un {@link GameFinishedEvent}.
+     * @param id el identificador único del juego
+     * @param winners los ganadores de las reclamaciones, en orden de llegada
+     * @return los ganadores registrados: el ganador del juego seguido de los empatados
+     * @throws IllegalArgumentException si no hay ganadores
+     * @throws NoSuchElementException si el juego no existe
+     */
+    public List<String> settleWinners(Long id, List<String> winners) {
+        if (winners.isEmpty()) {
+            throw new IllegalArgumentException("El juego " + id + " no tiene ganadores");
+        }
+        return gameMetricsService.recordWinner(() -> gameMailboxService.callInTransaction(id, () -> {
+            Instant now = Instant.now();
+            gameRepository.updateWinnerG(id, winners.get(0));
+            if (gameRepository.updateStatusG(id, statusRegistry.get(StatusType.GAME_FINISHED), now) == 0) {
+                throw new NoSuchElementException("No existe el juego " + id);
+            }
+            List<String> recorded = new ArrayList<>(winners.size() + 1);
+            gameRepository.findWinner(id).ifPresent(recorded::add);
+            for (String winner : winners) {
+                if (!recorded.contains(winner)) {
+                    recorded.add(winner);
+                }
+            }
+            gamerRepository.updateStatusByGameAndUsers(id, recorded, StatusType.GAMER_WINNER.getId(), now);
+            gamerRepository.updateStatusByGameExceptUsers(id, recorded, StatusType.GAMER_CONNECTED.getId(), now);
+            // Si el estado en memoria no alcanzó a liberarse, su próxima escritura no debe devolver el estado anterior.
+            gameStateService.changeStatus(id, StatusType.GAME_FINISHED);
+            eventPublisher.publishEvent(new GameFinishedEvent(id));
+            return recorded;
+        }));
     }
 
     /**
@@ -103,6 +288,7 @@ public class GameService implements IGame {
     @Transactional
     public void deleteGame(Long id) {
         gameRepository.deleteById(id);
+        entityManager.getEntityManagerFactory().getCache().evict(FinishedGame.class, id);
     }
 
     /**
@@ -0,0 +1,388 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.GameSummary;
+import com.sofka.bingo.domain.StatusType;
+import com.sofka.bingo.repository.GameRepository;
+import com.sofka.bingo.repository.GamerRepository;
+import com.sofka.bingo.repository.MoveRepository;
+import com.sofka.bingo.utility.CreateMove;
+import com.sofka.bingo.utility.DrawJournal;
+import com.sofka.bingo.utility.GameState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio GameStateService mantiene en memoria el estado de cada juego activo ({@link GameState}) como fuente de verdad:
+ * las balotas, los cambios de estado y el ganador se registran en memoria y se escriben en la base de datos
+ * por lotes, cada cierto intervalo, en una sola transacción por juego. Al cerrar un juego se escriben
+ * sus cambios pendientes antes de liberarlo, de modo que la sacada de balotas no espera a la base de datos.
+ * Cada cambio se escribe también en el diario del nodo, que se reproduce al arrancar para recuperar
+ * los juegos que quedaron abiertos.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Slf4j
+@Service
+public class GameStateService {
+
+    private static final String INSERT_MOVE = "insert into move (mov_letter, mov_number, mov_seq, gam_id) values (?, ?, ?, ?)";
+
+    private static final String UPDATE_STATUS = "update game set statu_id = ?, update_date = ? where gam_id = ?";
+
+    private static final String UPDATE_WINNER = "update game set winner = ? where gam_id = ? and winner is null";
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GamerRepository gamerRepository;
+
+    @Autowired
+    private MoveRepository moveRepository;
+
+    @Autowired
+    private StatusRegistry statusRegistry;
+
+    @Autowired
+    private DrawJournalService drawJournalService;
+
+    @Autowired
+    private GameMailboxService gameMailboxService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ScheduledExecutorService gameScheduler;
+
+    @Value("${bingo.game-state.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    /**
+     * Estado de los juegos activos, indexado por ID del juego.
+     */
+    private final Map<Long, GameState> states = new ConcurrentHashMap<>();
+
+    /**
+     * IDs de los juegos que se cerraron pero cuya última escritura falló. Siguen en memoria hasta que
+     * la escritura periódica logre escribir sus cambios pendientes; solo entonces se liberan.
+     */
+    private final Set<Long> closing = ConcurrentHashMap.newKeySet();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    private void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        gameScheduler.scheduleWithFixedDelay(this::scheduleFlushes, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Carga en memoria el estado de un juego a partir de la base de datos, si aún no está cargado.
+     * @param idGame el ID del juego
+     * @return el estado del juego, o vacío si el juego no existe
+     */
+    public Optional<GameState> open(Long idGame) {
+        closing.remove(idGame);
+        return Optional.ofNullable(states.computeIfAbsent(idGame, this::load));
+    }
+
+    /**
+     * Indica si un juego tiene su estado cargado en memoria.
+     * @param idGame el ID del juego
+     * @return verdadero si el estado del juego está en memoria
+     */
+    public boolean isOpen(Long idGame) {
+        return states.containsKey(idGame);
+    }
+
+    /**
+     * Retorna la cantidad de jugadores de los juegos cargados en memoria.
+     * @return la cantidad de jugadores sentados
+     */
+    public int seatedGamers() {
+        return states.values().stream().mapToInt(GameState::getGamers).sum();
+    }
+
+    /**
+     * Registra una balota sacada en el estado en memoria del juego.
+     * @param idGame el ID del juego
+     * @param seq la posición de la balota en el juego
+     * @param number el número de la balota
+     * @param letter la letra de la balota
+     * @return verdadero si el juego está en memoria y la balota quedó registrada para escribirse después
+     */
+    public boolean draw(Long idGame, int seq, int number, String letter) {
+        GameState state = states.get(idGame);
+        if (state == null) {
+            return false;
+        }
+        if (state.draw(seq, number, letter)) {
+            drawJournalService.draw(idGame, number);
+        }
+        return true;
+    }
+
+    /**
+     * Cambia el estado de un juego en memoria.
+     * @param idGame el ID del juego
+     * @param status el nuevo estado
+     * @return verdadero si el juego está en memoria y el cambio quedó registrado para escribirse después
+     */
+    public boolean changeStatus(Long idGame, StatusType status) {
+        GameState state = states.get(idGame);
+        if (state == null) {
+            return false;
+        }
+        state.changeStatus(status);
+        drawJournalService.status(idGame, status);
+        return true;
+    }
+
+    /**
+     * Registra el ganador de un juego en memoria, solo si el juego aún no tiene uno.
+     * @param idGame el ID del juego
+     * @param winner el nombre de usuario del ganador
+     * @return el ganador del juego, o vacío si el juego no está en memoria
+     */
+    public Optional<String> setWinner(Long idGame, String winner) {
+        GameState state = states.get(idGame);
+        if (state == null) {
+            return Optional.empty();
+        }
+        String stored = state.setWinner(winner);
+        if (stored != null && stored.equals(winner)) {
+            drawJournalService.claim(idGame, winner);
+        }
+        return Optional.ofNullable(stored);
+    }
+
+    /**
+     * Agrega un jugador al estado en memoria de un juego, si está cargado.
+     * @param idGame el ID del juego
+     * @param user el nombre de usuario del jugador
+     */
+    public void join(Long idGame, String user) {
+        GameState state = states.get(idGame);
+        if (state != null) {
+            state.join(user);
+        }
+    }
+
+    /**
+     * Saca un jugador del estado en memoria de un juego, si está cargado.
+     * @param idGame el ID del juego
+     * @param user el nombre de usuario del jugador
+     */
+    public void leave(Long idGame, String user) {
+        GameState state = states.get(idGame);
+        if (state != null) {
+            state.leave(user);
+        }
+    }
+
+    /**
+     * Retorna las balotas sacadas de un juego en memoria, incluidas las que aún no se escriben.
+     * @param idGame el ID del juego
+     * @return una copia de las balotas sacadas, o vacío si el juego no está en memoria
+     */
+    public Optional<BitSet> drawn(Long idGame) {
+        GameState state = states.get(idGame);
+        return state == null ? Optional.empty() : Optional.of(state.getDrawn());
+    }
+
+    /**
+     * Construye el resumen de un juego desde su estado en memoria, sin consultar la base de datos.
+     * @param idGame el ID del juego
+     * @return el resumen del juego, o vacío si el juego no está en memoria
+     */
+    public Optional<GameSummary> summary(Long idGame) {
+        GameState state = states.get(idGame);
+        if (state == null) {
+            return Optional.empty();
+        }
+        GameState.Snapshot snapshot = state.snapshot();
+        StatusType status = snapshot.status();
+        return Optional.of(new GameSummary(
+                snapshot.idGame(),
+                status == null ? null : status.getId(),
+                status == null ? null : statusRegistry.get(status).getStatusName(),
+                snapshot.winner(),
+                (long) snapshot.gamers(),
+                (long) snapshot.draws(),
+                snapshot.lastNumber(),
+                snapshot.lastLetter(),
+                snapshot.updateAt()));
+    }
+
+    /**
+     * Escribe los cambios pendientes de un juego y libera su estado en memoria.
+     * El estado se libera y el juego se marca como cerrado en el diario solo si la escritura termina bien;
+     * si falla, el estado sigue en memoria y la escritura periódica lo vuelve a intentar antes de liberarlo.
+     * @param idGame el ID del juego
+     */
+    public void close(Long idGame) {
+        GameState state = states.get(idGame);
+        if (state == null) {
+            return;
+        }
+        closing.add(idGame);
+        release(state);
+    }
+
+    /**
+     * Escribe los cambios pendientes de un juego cerrado y, si la escritura termina bien, libera su estado
+     * y marca el juego como cerrado en el diario.
+     * @param state el estado del juego
+     */
+    private void release(GameState state) {
+        Long idGame = state.getIdGame();
+        if (flush(state) && closing.remove(idGame)) {
+            states.remove(idGame, state);
+            drawJournalService.closed(idGame);
+        }
+    }
+
+    /**
+     * Reproduce al arrancar los eventos del diario de los juegos que quedaron abiertos: el estado de cada juego
+     * se carga desde la base de datos, se le aplican las balotas, estados y ganadores que no alcanzaron
+     * a escribirse, se escriben y el juego se cierra, finalizado o no: su ciclo no sobrevive al reinicio,
+     * así que un juego sin finalizar no debe quedar en memoria sin nadie que lo mueva ni lo libere. Si el juego
+     * vuelve a abrirse, su estado se carga de nuevo desde la base de datos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replay() {
+        Map<Long, List<DrawJournal.Entry>> entriesByGame = drawJournalService.pending().stream()
+                .collect(Collectors.groupingBy(DrawJournal.Entry::idGame, LinkedHashMap::new, Collectors.toList()));
+        entriesByGame.forEach((idGame, entries) -> {
+            Optional<GameState> opened = open(idGame);
+            if (opened.isEmpty()) {
+                drawJournalService.closed(idGame);
+                return;
+            }
+            GameState state = opened.get();
+            CreateMove createMove = new CreateMove();
+            for (DrawJournal.Entry entry : entries) {
+                switch (entry.type()) {
+                    case DRAW -> state.draw(state.snapshot().draws() + 1, entry.value(), createMove.letter(entry.value()));
+                    case STATUS -> StatusType.fromId((long) entry.value()).ifPresent(state::changeStatus);
+                    case CLAIM -> state.setWinner(entry.text());
+                    default -> { }
+                }
+            }
+            close(idGame);
+        });
+        if (!entriesByGame.isEmpty()) {
+            log.info("Se recuperaron {} juegos del diario", entriesByGame.size());
+        }
+    }
+
+    /**
+     * Encola la escritura de los cambios pendientes de cada juego en memoria en el escritor del juego,
+     * de modo que las escrituras de juegos distintos corren en paralelo y nunca se intercalan
+     * con los cambios de un mismo juego.
+     */
+    private void scheduleFlushes() {
+        for (GameState state : states.values()) {
+            Long idGame = state.getIdGame();
+            gameMailboxService.execute(idGame, () -> {
+                if (closing.contains(idGame)) {
+                    release(state);
+                } else {
+                    flush(state);
+                }
+            });
+        }
+    }
+
+    /**
+     * Escribe los cambios pendientes de todos los juegos en memoria.
+     */
+    @PreDestroy
+    public void flushAll() {
+        for (GameState state : states.values()) {
+            flush(state);
+        }
+    }
+
+    /**
+     * Escribe en una sola transacción los cambios pendientes de un juego: las balotas en un lote JDBC,
+     * y el estado y el ganador con una actualización cada uno. Si la escritura falla, los cambios
+     * vuelven a la cola para el siguiente intento.
+     * @param state el estado del juego
+     * @return verdadero si no quedaron cambios sin escribir
+     */
+    private boolean flush(GameState state) {
+        synchronized (state.getFlushLock()) {
+            GameState.Pending pending = state.drainPending();
+            if (pending.isEmpty()) {
+                return true;
+            }
+            Long idGame = state.getIdGame();
+            try {
+                transactionTemplate.executeWithoutResult(transaction -> {
+                    if (!pending.moves().isEmpty()) {
+                        jdbcTemplate.batchUpdate(INSERT_MOVE, pending.moves(), pending.moves().size(), (statement, move) -> {
+                            statement.setString(1, move.letter());
+                            statement.setInt(2, move.number());
+                            statement.setInt(3, move.seq());
+                            statement.setLong(4, idGame);
+                        });
+                    }
+                    if (pending.status() != null) {
+                        jdbcTemplate.update(UPDATE_STATUS, pending.status().getId(), Timestamp.from(pending.updateAt()), idGame);
+                    }
+                    if (pending.winner() != null) {
+                        jdbcTemplate.update(UPDATE_WINNER, pending.winner(), idGame);
+                    }
+                });
+                return true;
+            } catch (Exception exc) {
+                log.error("Error al escribir los cambios del juego {}", idGame, exc);
+                state.requeue(pending);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Carga el estado de un juego desde la base de datos.
+     * @param idGame el ID del juego
+     * @return el estado del juego, o null si el juego no existe
+     */
+    private GameState load(Long idGame) {
+        return gameRepository.findSummary(idGame)
+                .map(summary -> new GameState(
+                        idGame,
+                        StatusType.fromId(summary.idStatus()).orElse(null),
+                        summary.winner(),
+                        summary.updateAt(),
+                        gamerRepository.findUsersByGame(idGame),
+                        moveRepository.findNumbersByGame(idGame)))
+                .orElse(null);
+    }
+}
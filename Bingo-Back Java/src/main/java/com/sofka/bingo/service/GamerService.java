@@ -1,16 +1,28 @@
 package com.sofka.bingo.service;
 
+import com.sofka.bingo.domain.Board;
+import com.sofka.bingo.domain.Game;
 import com.sofka.bingo.domain.Gamer;
 import com.sofka.bingo.domain.Status;
+import com.sofka.bingo.domain.StatusType;
 import com.sofka.bingo.repository.GamerRepository;
 import com.sofka.bingo.service.interfaces.IGamer;
+import com.sofka.bingo.utility.GameEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * El servicio GamerService establece los métodos para manejar los jugadores de bingo.
@@ -22,14 +34,63 @@ public class GamerService implements IGamer {
     @Autowired
     private GamerRepository gamerRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private WinnerDetectionService winnerDetectionService;
+
+    @Autowired
+    private GameStateService gameStateService;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameMailboxService gameMailboxService;
+
+    @Autowired
+    private BoardPoolService boardPoolService;
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private StatusRegistry statusRegistry;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Retorna una lista de todos los gamers.
+     * Retorna una página de jugadores con ID mayor al cursor dado, ordenados por ID.
+     * @param after el ID del último jugador de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de jugadores a retornar
      * @return una lista de objetos Gamer
      */
     @Override
-    @Transactional()
-    public List<Gamer> getGamerList() {
-        return (List<Gamer>) gamerRepository.findAll();
+    @Transactional
+    public List<Gamer> getGamerPage(Long after, int limit) {
+        return gamerRepository.findByIdGamerGreaterThanOrderByIdGamer(after, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Recorre los jugadores con ID mayor al cursor dado, ordenados por ID, sin cargarlos todos en memoria.
+     * Después de entregar cada jugador se limpia el contexto de persistencia, junto con lo que se cargó con él.
+     * @param after el ID a partir del cual se recorren los jugadores
+     * @param action la acción que recibe cada jugador
+     */
+    @Override
+    @Transactional
+    public void streamGamers(Long after, Consumer<? super Gamer> action) {
+        try (Stream<Gamer> gamers = gamerRepository.streamAfter(after)) {
+            gamers.forEach(gamer -> {
+                action.accept(gamer);
+                entityManager.clear();
+            });
+        }
     }
 
     /**
@@ -43,6 +104,27 @@ public class GamerService implements IGamer {
         return gamerRepository.findById(id);
     }
 
+    /**
+     * Encuentra el jugador de un juego por su nombre de usuario, con su tablero, sin cargar el resto de los jugadores.
+     * @param idGame el ID del juego
+     * @param user el nombre de usuario del jugador
+     * @return un objeto Optional que contiene el Gamer, o un objeto vacío si no está en el juego o no tiene tablero
+     */
+    @Transactional
+    public Optional<Gamer> findGamerInGame(Long idGame, String user) {
+        return gamerRepository.findInGameWithBoard(idGame, user);
+    }
+
+    /**
+     * Encuentra los IDs de los jugadores de un juego, en el orden en que entraron al juego.
+     * @param idGame el ID del juego
+     * @return la lista de IDs de los jugadores del juego
+     */
+    @Transactional
+    public List<Long> findGamerIdsInGame(Long idGame) {
+        return gamerRepository.findIdsByGame(idGame);
+    }
+
     /**
      * Crea un nuevo Gamer con el estado especificado y lo agrega a la lista de gamers.
      * @param gamer el nuevo Gamer a crear
@@ -54,7 +136,10 @@ public class GamerService implements IGamer {
     public Gamer postGamer(Gamer gamer, Status status) {
         gamer.setCreationAt(Instant.now());
         gamer.setStatusGamer(status);
-        return gamerRepository.save(gamer);
+        Gamer saved = gamerRepository.save(gamer);
+        StatusType.fromId(status.getIdStatus()).filter(PresenceService::tracks)
+                .ifPresent(type -> presenceService.track(saved.getIdGamer(), saved.getUser(), null, type));
+        return saved;
     }
 
     /**
@@ -72,38 +157,180 @@ public class GamerService implements IGamer {
     }
 
     /**
-     * Actualiza el estado del Gamer con el ID especificado en la base de datos.
+     * Actualiza el estado del Gamer con el ID especificado. Los estados "Conectado", "En espera" y "Desconectado"
+     * se llevan en el registro de presencia y se escriben después por lotes; los demás se escriben de inmediato.
      * @param id el ID del Gamer a actualizar
      * @param gamer el objeto Gamer con el estado actualizado
      */
     @Transactional
     public void updateStatusGamerS(Long id, Gamer gamer){
         gamer.setUpdateAt(Instant.now());
+        Optional<StatusType> status = StatusType.fromId(gamer.getStatusGamer().getIdStatus());
+        if (status.isPresent() && PresenceService.tracks(status.get())) {
+            if (!presenceService.changeStatus(id, status.get())) {
+                throw new NoSuchElementException("No existe el jugador " + id);
+            }
+            return;
+        }
+        presenceService.discardPending(id);
         gamerRepository.updateGamerStatus(gamer.getStatusGamer().getIdStatus(), id);
     }
 
     /**
      * Actualiza la tabla del Gamer con el ID especificado en la base de datos.
+     * Si el jugador está en un juego, el tablero queda en ese juego sin repetir ningún otro tablero del juego.
      * @param id el ID del Gamer a actualizar
      * @param gamer el objeto Gamer con la tabla actualizada
+     * @throws NoSuchElementException si el tablero no existe
      */
     @Transactional
     public void updateBoardGamerS(Long id, Gamer gamer){
         gamer.setUpdateAt(Instant.now());
-        gamerRepository.updateGamerBoard(gamer.getBoard().getIdBoard(), id);
+        Long idBoard = gamer.getBoard().getIdBoard();
+        Optional<Gamer> current = findGamer(id);
+        if (current.isEmpty()) {
+            return;
+        }
+        Board board = boardService.findBoard(idBoard)
+                .orElseThrow(() -> new NoSuchElementException("No existe el tablero " + idBoard));
+        boolean sameBoard = current.get().getBoard() != null && idBoard.equals(current.get().getBoard().getIdBoard());
+        if (current.get().getGame() != null && !sameBoard) {
+            boardService.bindToGame(current.get().getGame().getIdGame(), board);
+        }
+        current.get().setBoard(board);
+        current.get().setUpdateAt(gamer.getUpdateAt());
+        winnerDetectionService.register(current.get());
     }
 
     /**
-     * Actualiza el juego del Gamer con el ID especificado en la base de datos.
+     * Actualiza el juego del Gamer con el ID especificado en la base de datos
+     * y publica el cambio en la lista de jugadores de los juegos afectados, también en su estado en memoria.
+     * El cambio corre, dentro de una transacción, en el escritor del juego al que entra el jugador.
      * @param id el ID del Gamer a actualizar
      * @param gamer el objeto Gamer con el juego actualizado
      */
-    @Transactional
     public void updateGameGamerS(Long id, Gamer gamer){
+        Long target = gamer.getGame() != null ? gamer.getGame().getIdGame() : null;
+        gameMailboxService.runInTransaction(target, () -> relinkGame(id, gamer));
+    }
+
+    /**
+     * Cambia el juego de un jugador y publica el cambio en la lista de jugadores de los juegos afectados.
+     * El tablero del jugador queda en el nuevo juego sin repetir ningún otro tablero del juego.
+     * @param id el ID del Gamer a actualizar
+     * @param gamer el objeto Gamer con el juego actualizado
+     */
+    private void relinkGame(Long id, Gamer gamer){
         Gamer gamerId = findGamer(id).get();
+        Long previousGame = gamerId.getGame() != null ? gamerId.getGame().getIdGame() : null;
+        Long newGame = gamer.getGame() != null ? gamer.getGame().getIdGame() : null;
+        if (gamerId.getBoard() != null && newGame != null && !newGame.equals(previousGame)) {
+            boardService.bindToGame(newGame, gamerId.getBoard());
+        }
         gamerId.setUpdateAt(Instant.now());
         gamerId.setGame(gamer.getGame());
-        gamerRepository.save(gamerId);
+        winnerDetectionService.register(gamerRepository.save(gamerId));
+        presenceService.moveTo(id, newGame);
+        publishRoster(gamerId.getUser(), previousGame, newGame);
+    }
+
+    /**
+     * Une un jugador a un juego en una sola operación: busca el jugador por su usuario o lo crea,
+     * le asigna un tablero, lo relaciona con el juego y lo deja "En espera".
+     * Reemplaza la secuencia de llamadas que hacía el cliente para entrar a una sala.
+     * El cambio corre, dentro de una transacción, en el escritor del juego.
+     * @param idGame el ID del juego
+     * @param user el nombre de usuario del jugador
+     * @return el jugador con su tablero, o null si el juego no está "En espera"
+     */
+    public Gamer joinGame(Long idGame, String user) {
+        return gameMailboxService.callInTransaction(idGame, () -> join(idGame, user));
+    }
+
+    /**
+     * Une un jugador a un juego con las mínimas sentencias: el jugador nuevo se inserta una sola vez
+     * con su tablero, juego y estado, y el jugador existente se actualiza una sola vez al terminar la transacción.
+     * Si el jugador ya estaba en el juego con un tablero, conserva su tablero; si viene de otro juego,
+     * recibe un tablero nuevo y el tablero anterior se elimina.
+     * @param idGame el ID del juego
+     * @param user el nombre de usuario del jugador
+     * @return el jugador con su tablero, o null si el juego no está "En espera"
+     */
+    private Gamer join(Long idGame, String user) {
+        boolean waiting = gameService.findGameSummary(idGame)
+                .map(summary -> StatusType.GAME_WAITING.is(summary.idStatus()))
+                .orElse(false);
+        if (!waiting) {
+            return null;
+        }
+        Instant now = Instant.now();
+        Gamer gamer = existUser(user);
+        Long previousGame = null;
+        if (gamer == null) {
+            gamer = new Gamer();
+            gamer.setUser(user);
+            gamer.setCreationAt(now);
+        } else if (gamer.getGame() != null) {
+            previousGame = gamer.getGame().getIdGame();
+        }
+        if (gamer.getBoard() == null || !idGame.equals(previousGame)) {
+            Board previousBoard = gamer.getBoard();
+            gamer.setBoard(assignBoard(gamer.getIdGamer(), idGame));
+            if (previousBoard != null) {
+                boardService.deleteBoard(previousBoard);
+            }
+        }
+        gamer.setGame(entityManager.getReference(Game.class, idGame));
+        gamer.setStatusGamer(statusRegistry.get(StatusType.GAMER_WAITING));
+        gamer.setUpdateAt(now);
+        if (gamer.getIdGamer() == null) {
+            entityManager.persist(gamer);
+            gamer.getBoard().setGamerId(gamer.getIdGamer());
+        }
+        winnerDetectionService.register(gamer);
+        presenceService.track(gamer.getIdGamer(), user, idGame, StatusType.GAMER_WAITING);
+        publishRoster(user, previousGame, idGame);
+        return gamer;
+    }
+
+    /**
+     * Toma un tablero de la reserva o, si está vacía, genera uno nuevo. En ambos casos el tablero
+     * queda en el juego y no repite ningún otro tablero del juego.
+     * @param idGamer el ID del jugador, o null si el jugador aún no se guarda
+     * @param idGame el ID del juego al que entra el jugador
+     * @return el tablero del jugador
+     */
+    private Board assignBoard(Long idGamer, Long idGame) {
+        Board board = boardPoolService.claim(idGamer, idGame);
+        if (board == null) {
+            board = new Board();
+            board.setGamerId(idGamer);
+            board.setGameId(idGame);
+            board.setNumbers(boardService.uniqueCard(idGame));
+            entityManager.persist(board);
+        }
+        return board;
+    }
+
+    /**
+     * Actualiza la lista de jugadores en memoria de los juegos afectados por un cambio de juego y publica el cambio.
+     * La salida del juego anterior se aplica en el escritor de ese juego.
+     * @param user el nombre de usuario del jugador
+     * @param previousGame el ID del juego del que sale el jugador, o null
+     * @param newGame el ID del juego al que entra el jugador, o null
+     */
+    private void publishRoster(String user, Long previousGame, Long newGame) {
+        if (previousGame != null && !previousGame.equals(newGame)) {
+            // El juego anterior tiene su propio escritor; se encola ahí para no cambiar su estado desde este.
+            gameMailboxService.execute(previousGame, () -> gameStateService.leave(previousGame, user));
+            eventPublisher.publishEvent(new GameEvent(previousGame, GameEvent.Type.ROSTER,
+                    Map.of("left", user)));
+        }
+        if (newGame != null && !newGame.equals(previousGame)) {
+            gameStateService.join(newGame, user);
+            eventPublisher.publishEvent(new GameEvent(newGame, GameEvent.Type.ROSTER,
+                    Map.of("joined", user)));
+        }
     }
 
     /**
@@ -126,7 +353,7 @@ public class GamerService implements IGamer {
     }
 
     /**
-     * Busca y retorna un Gamer por su nombre de usuario.
+     * Busca y retorna un Gamer por su nombre de usuario, con una sola consulta sobre el índice único del usuario.
      * @param user el nombre de usuario del Gamer a buscar
      * @return el objeto Gamer correspondiente al nombre de usuario especificado, o null si no se encuentra
      */
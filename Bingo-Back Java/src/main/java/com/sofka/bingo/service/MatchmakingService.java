@@ -0,0 +1,241 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.Game;
+import com.sofka.bingo.domain.Gamer;
+import com.sofka.bingo.domain.Seat;
+import com.sofka.bingo.domain.StatusType;
+import com.sofka.bingo.utility.OpenRoom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Servicio MatchmakingService sienta a los jugadores que llegan al lobby en las salas abiertas.
+ * Las salas abiertas se guardan en una cola sin candados, en orden de creación; cada jugador reserva
+ * un puesto en la sala más antigua con un compare-and-set y solo se crea un juego nuevo cuando todas
+ * las salas abiertas están llenas. Una sala se cierra e inicia su juego cuando se llena o cuando llega
+ * su momento de inicio; si se cierra vacía, su juego se elimina. Las salas solo viven en memoria, así que al arrancar
+ * se retoman como salas los juegos "En espera" que ya tienen jugadores.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Slf4j
+@Service
+public class MatchmakingService {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GamerService gamerService;
+
+    @Autowired
+    private GameLoopService gameLoopService;
+
+    @Autowired
+    private StatusRegistry statusRegistry;
+
+    @Autowired
+    private ScheduledExecutorService gameScheduler;
+
+    @Value("${bingo.matchmaking.room-capacity:50}")
+    private int roomCapacity;
+
+    @Value("${bingo.matchmaking.start-after-ms:60000}")
+    private long startAfterMs;
+
+    /**
+     * Salas abiertas, en orden de creación.
+     */
+    private final Queue<OpenRoom> openRooms = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Salas abiertas, indexadas por ID del juego.
+     */
+    private final Map<Long, OpenRoom> rooms = new ConcurrentHashMap<>();
+
+    /**
+     * Sala que se está creando, para que los jugadores que llegan al mismo tiempo esperen la misma sala
+     * en lugar de crear una cada uno.
+     */
+    private final AtomicReference<CompletableFuture<OpenRoom>> creating = new AtomicReference<>();
+
+    /**
+     * Sienta a un jugador en una sala abierta, creando una sala solo si todas están llenas.
+     * El jugador entra al juego de la sala como en "/game/{id}/join": recibe un tablero y queda "En espera".
+     * Si el jugador ya está en una sala abierta, se retorna su propio puesto en esa sala; si entró al juego
+     * de la sala sin pasar por el lobby, se le reserva un puesto en ella.
+     * @param idGamer el ID del jugador
+     * @return el puesto del jugador
+     * @throws NoSuchElementException si el jugador no existe
+     */
+    public Seat seat(Long idGamer) {
+        Gamer gamer = gamerService.findGamer(idGamer).orElseThrow(() -> new NoSuchElementException("No existe el jugador " + idGamer));
+        if (gamer.getGame() != null) {
+            OpenRoom current = rooms.get(gamer.getGame().getIdGame());
+            if (current != null) {
+                int seat = current.seatOf(idGamer);
+                if (seat == 0) {
+                    seat = current.tryReserve();
+                    if (seat > 0) {
+                        current.assign(idGamer, seat);
+                        if (current.isFull(seat)) {
+                            closeRoom(current);
+                        }
+                    }
+                }
+                if (seat > 0) {
+                    return seatOf(idGamer, current, seat);
+                }
+            }
+        }
+        while (true) {
+            OpenRoom room = openRooms.peek();
+            if (room == null) {
+                room = createRoom();
+            }
+            int taken = room.tryReserve();
+            if (taken == 0) {
+                openRooms.remove(room);
+                continue;
+            }
+            Gamer seated;
+            try {
+                seated = gamerService.joinGame(room.getIdGame(), gamer.getUser());
+            } catch (RuntimeException exc) {
+                room.release();
+                throw exc;
+            }
+            if (seated == null) {
+                // El juego de la sala ya no está "En espera": la sala se descarta y se busca otra.
+                room.release();
+                openRooms.remove(room);
+                rooms.remove(room.getIdGame(), room);
+                continue;
+            }
+            room.assign(idGamer, taken);
+            if (room.isFull(taken)) {
+                closeRoom(room);
+            }
+            return seatOf(idGamer, room, taken);
+        }
+    }
+
+    /**
+     * Retoma como salas abiertas los juegos "En espera" con jugadores que dejaron las salas antes de reiniciar
+     * el servidor, para que sus jugadores no queden esperando un juego que nadie va a iniciar.
+     * Cada sala conserva sus jugadores, que reciben sus puestos en el orden en que entraron, y vuelve a contar
+     * el tiempo de inicio; si ya está llena, su juego se inicia.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverRooms() {
+        for (Long idGame : gameService.findWaitingGamesWithGamers()) {
+            try {
+                OpenRoom room = new OpenRoom(idGame, roomCapacity, System.currentTimeMillis() + startAfterMs);
+                int taken = 0;
+                for (Long idGamer : gamerService.findGamerIdsInGame(idGame)) {
+                    int reserved = room.tryReserve();
+                    if (reserved == 0) {
+                        break;
+                    }
+                    room.assign(idGamer, reserved);
+                    taken = reserved;
+                }
+                rooms.put(idGame, room);
+                if (room.isFull(taken)) {
+                    closeRoom(room);
+                    continue;
+                }
+                openRooms.add(room);
+                gameScheduler.schedule(() -> closeRoom(room), startAfterMs, TimeUnit.MILLISECONDS);
+            } catch (Exception exc) {
+                log.error("Error al retomar la sala del juego {}", idGame, exc);
+            }
+        }
+        if (!rooms.isEmpty()) {
+            log.info("Se retomaron {} salas en espera", rooms.size());
+        }
+    }
+
+    /**
+     * Retorna la cantidad de salas abiertas.
+     * @return la cantidad de salas
+     */
+    public int openRooms() {
+        return rooms.size();
+    }
+
+    /**
+     * Crea una sala con un juego nuevo en estado "En espera" y programa su cierre.
+     * Si otro jugador ya está creando una sala, se espera esa sala; si al ganar la creación ya hay
+     * una sala abierta, porque otro jugador la creó mientras tanto, se retorna esa sala sin crear un juego.
+     * @return la sala creada o la sala abierta más antigua
+     */
+    private OpenRoom createRoom() {
+        CompletableFuture<OpenRoom> mine = new CompletableFuture<>();
+        CompletableFuture<OpenRoom> current = creating.compareAndExchange(null, mine);
+        if (current != null) {
+            return current.join();
+        }
+        try {
+            OpenRoom open = openRooms.peek();
+            if (open != null) {
+                mine.complete(open);
+                return open;
+            }
+            Game game = gameService.postGame(new Game(), statusRegistry.get(StatusType.GAME_WAITING));
+            OpenRoom room = new OpenRoom(game.getIdGame(), roomCapacity, System.currentTimeMillis() + startAfterMs);
+            rooms.put(room.getIdGame(), room);
+            openRooms.add(room);
+            gameScheduler.schedule(() -> closeRoom(room), startAfterMs, TimeUnit.MILLISECONDS);
+            mine.complete(room);
+            return room;
+        } catch (RuntimeException exc) {
+            mine.completeExceptionally(exc);
+            throw exc;
+        } finally {
+            creating.set(null);
+        }
+    }
+
+    /**
+     * Cierra una sala: inicia su juego si tiene jugadores o lo elimina si quedó vacía.
+     * Solo el primero que cierra la sala hace algo; los cierres siguientes se ignoran.
+     * @param room la sala
+     */
+    private void closeRoom(OpenRoom room) {
+        int seated = room.close();
+        if (seated < 0) {
+            return;
+        }
+        rooms.remove(room.getIdGame());
+        openRooms.remove(room);
+        try {
+            if (seated == 0) {
+                gameService.deleteGame(room.getIdGame());
+            } else {
+                gameLoopService.start(room.getIdGame());
+            }
+        } catch (Exception exc) {
+            log.error("Error al cerrar la sala del juego {}", room.getIdGame(), exc);
+        }
+    }
+
+    private static Seat seatOf(Long idGamer, OpenRoom room, int seat) {
+        return new Seat(idGamer, room.getIdGame(), seat, room.getCapacity(), Instant.ofEpochMilli(room.getStartAt()));
+    }
+}
@@ -1,15 +1,31 @@
 package com.sofka.bingo.service;
 
+import com.sofka.bingo.domain.Draw;
 import com.sofka.bingo.domain.Game;
 import com.sofka.bingo.domain.Move;
+import com.sofka.bingo.domain.StatusType;
 import com.sofka.bingo.repository.MoveRepository;
 import com.sofka.bingo.service.interfaces.IMove;
+import com.sofka.bingo.utility.BallDeck;
+import com.sofka.bingo.utility.CreateMove;
+import com.sofka.bingo.utility.GameFinishedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.security.SecureRandom;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio MoveService que define las operaciones para interactuar con los movimientos de un juego.
@@ -18,17 +34,69 @@ import java.util.Optional;
  */
 @Service
 public class MoveService implements IMove {
+
     @Autowired
     private MoveRepository moveRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private WinVerificationService winVerificationService;
+
+    @Autowired
+    private WinnerDetectionService winnerDetectionService;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private StatusRegistry statusRegistry;
+
+    @Autowired
+    private GameStateService gameStateService;
+
+    @Autowired
+    private DrawFeedService drawFeedService;
+
+    @Autowired
+    private GameMailboxService gameMailboxService;
+
+    @Autowired
+    private GameMetricsService gameMetricsService;
+
+    /**
+     * Mazo de balotas barajado de cada juego, indexado por ID del juego.
+     */
+    private final Map<Long, BallDeck> decks = new ConcurrentHashMap<>();
+
+    /**
+     * Retorna una página de movimientos con ID mayor al cursor dado, ordenados por ID.
+     * @param after el ID del último movimiento de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de movimientos a retornar
+     * @return una lista de objetos Move
+     */
+    @Override
+    @Transactional
+    public List<Move> getMovePage(Long after, int limit) {
+        return moveRepository.findByIdMoveGreaterThanOrderByIdMove(after, PageRequest.of(0, limit));
+    }
+
     /**
-     * Retorna una lista de todos los movimientos en la base de datos.
-     * @return una lista de objetos Move que representan todos los movimientos en la base de datos
+     * Recorre los movimientos con ID mayor al cursor dado, ordenados por ID, sin cargarlos todos en memoria.
+     * Después de entregar cada movimiento se limpia el contexto de persistencia, junto con lo que se cargó con él.
+     * @param after el ID a partir del cual se recorren los movimientos
+     * @param action la acción que recibe cada movimiento
      */
     @Override
-    @Transactional()
-    public List<Move> getMoveList() {
-        return (List<Move>) moveRepository.findAll();
+    @Transactional
+    public void streamMoves(Long after, Consumer<? super Move> action) {
+        try (Stream<Move> moves = moveRepository.streamAfter(after)) {
+            moves.forEach(move -> {
+                action.accept(move);
+                entityManager.clear();
+            });
+        }
     }
 
     /**
@@ -43,20 +111,47 @@ public class MoveService implements IMove {
     }
 
     /**
-     * Agrega un nuevo movimiento a la base de datos.
+     * Saca la siguiente balota del mazo del juego y la agrega como un nuevo movimiento a la base de datos.
+     * Si el juego está activo, la balota se registra en su estado en memoria y se escribe después por lotes,
+     * por lo que la sacada no abre una transacción propia. La balota se registra también en el búfer
+     * de balotas del juego para los clientes que se reconectan.
+     * La balota se aplica al índice de ganadores del juego; los ganadores se registran en el arbitraje
+     * de reclamaciones, no aquí. Cuando el mazo se agota, el juego pasa al estado "Finalizado" una sola vez.
+     * La sacada se aplica en el escritor del juego, en orden con los demás cambios del juego.
      * @param move el objeto Move a agregar a la base de datos
-     * @param number el número de la fila del tablero donde se realizó el movimiento
-     * @param letter la letra de la columna del tablero donde se realizó el movimiento
      * @param game el objeto Game al que pertenece el movimiento
-     * @return el objeto Move que se ha agregado a la base de datos
+     * @return el objeto Move que se ha agregado a la base de datos, o null si ya no quedan balotas
      */
     @Override
-    @Transactional
-    public Move postMove(Move move, int number, String letter, Game game) {
+    public Move postMove(Move move, Game game) {
+        return gameMetricsService.recordDraw(() -> gameMailboxService.call(game.getIdGame(), () -> drawMove(move, game)));
+    }
+
+    /**
+     * Saca la siguiente balota del mazo del juego y la registra. Corre en el escritor del juego.
+     * @param move el objeto Move a agregar a la base de datos
+     * @param game el objeto Game al que pertenece el movimiento
+     * @return el objeto Move registrado, o null si ya no quedan balotas
+     */
+    private Move drawMove(Move move, Game game) {
+        BallDeck deck = decks.computeIfAbsent(game.getIdGame(), this::loadDeck);
+        int number = deck.next();
+        if (number == BallDeck.EMPTY) {
+            if (deck.finish()) {
+                finishGame(game.getIdGame());
+            }
+            return null;
+        }
         move.setGame(game);
         move.setNumber(number);
-        move.setLetter(letter);
-        return moveRepository.save(move);
+        move.setLetter(new CreateMove().letter(number));
+        move.setSeq(deck.drawn());
+        boolean live = gameStateService.draw(game.getIdGame(), move.getSeq(), number, move.getLetter());
+        Move saved = live ? move : moveRepository.save(move);
+        drawFeedService.record(game.getIdGame(), new Draw(saved.getSeq(), number, saved.getLetter()));
+        winVerificationService.registerDraw(game.getIdGame(), number);
+        winnerDetectionService.onDraw(game.getIdGame(), number);
+        return saved;
     }
 
     /**
@@ -90,4 +185,43 @@ public class MoveService implements IMove {
     public boolean existsByIdMove(Long id){
         return moveRepository.existsById(id);
     }
+
+    /**
+     * Libera el mazo en memoria de un juego.
+     * @param idGame el ID del juego
+     */
+    public void evictDeck(Long idGame) {
+        decks.remove(idGame);
+    }
+
+    /**
+     * Libera el mazo de un juego cuando el juego finaliza, sin importar quién lo finalizó.
+     * @param event el evento del juego finalizado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameFinished(GameFinishedEvent event) {
+        evictDeck(event.idGame());
+    }
+
+    /**
+     * Construye el mazo de un juego a partir de su semilla, dejando fuera las balotas que ya salieron.
+     * Los juegos creados antes de guardar la semilla reciben una semilla aleatoria.
+     * @param idGame el ID del juego
+     * @return el mazo del juego
+     */
+    private BallDeck loadDeck(Long idGame) {
+        long seed = gameService.findSeed(idGame).orElseGet(() -> new SecureRandom().nextLong());
+        Set<Integer> drawn = new HashSet<>(moveRepository.findNumbersByGame(idGame));
+        return new BallDeck(seed, drawn);
+    }
+
+    /**
+     * Cambia el estado de un juego a "Finalizado".
+     * @param idGame el ID del juego
+     */
+    private void finishGame(Long idGame) {
+        Game finished = new Game();
+        finished.setStatusGame(statusRegistry.get(StatusType.GAME_FINISHED));
+        gameService.updateStatusG(idGame, finished);
+    }
 }
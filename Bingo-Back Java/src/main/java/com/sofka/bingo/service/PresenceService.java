@@ -0,0 +1,255 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.Gamer;
+import com.sofka.bingo.domain.StatusType;
+import com.sofka.bingo.repository.GamerRepository;
+import com.sofka.bingo.utility.GameEvent;
+import com.sofka.bingo.utility.PresenceRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio PresenceService lleva en memoria qué jugadores están en línea ({@link PresenceRegistry}) y con qué estado:
+ * "Conectado", "En espera" o "Desconectado". Los clientes envían un latido cada cierto tiempo y un jugador que deja
+ * de latir pasa a "Desconectado" al vencer. Solo los cambios de estado se escriben en la base de datos, por lotes,
+ * con una sentencia por estado; los latidos y las reconexiones con el mismo estado no la tocan.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Slf4j
+@Service
+public class PresenceService {
+
+    @Autowired
+    private GamerRepository gamerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ScheduledExecutorService gameScheduler;
+
+    @Autowired
+    private ScheduledExecutorService flushScheduler;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${bingo.presence.timeout-ms:30000}")
+    private long timeoutMs;
+
+    @Value("${bingo.presence.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${bingo.presence.flush-interval-ms:2000}")
+    private long flushIntervalMs;
+
+    @Value("${bingo.presence.batch-size:500}")
+    private int batchSize;
+
+    private PresenceRegistry registry;
+
+    /**
+     * Estados que aún no se escriben en la base de datos, indexados por ID del jugador.
+     * Si un jugador cambia varias veces antes de escribirse, solo se escribe el último estado.
+     */
+    private final Map<Long, StatusType> pending = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    private void init() {
+        registry = new PresenceRegistry(timeoutMs, tickMs);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        gameScheduler.scheduleWithFixedDelay(this::expire, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        flushScheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Indica si un estado de jugador se lleva en el registro de presencia en lugar de escribirse de inmediato.
+     * @param status el estado
+     * @return verdadero si el estado es "Conectado", "En espera" o "Desconectado"
+     */
+    public static boolean tracks(StatusType status) {
+        return status == StatusType.GAMER_CONNECTED
+                || status == StatusType.GAMER_WAITING
+                || status == StatusType.GAMER_DISCONNECTED;
+    }
+
+    /**
+     * Registra un jugador en línea con el estado dado, o lo saca si el estado es "Desconectado".
+     * Si el jugador no estaba en línea se busca una vez en la base de datos.
+     * @param idGamer el ID del jugador
+     * @param status el estado del jugador
+     * @return verdadero si el jugador existe
+     */
+    public boolean changeStatus(Long idGamer, StatusType status) {
+        if (status == StatusType.GAMER_DISCONNECTED) {
+            disconnect(idGamer);
+            return true;
+        }
+        PresenceRegistry.Presence current = registry.get(idGamer);
+        String user;
+        Long idGame;
+        if (current != null) {
+            user = current.user();
+            idGame = current.idGame();
+        } else {
+            Optional<Gamer> gamer = gamerRepository.findById(idGamer);
+            if (gamer.isEmpty()) {
+                return false;
+            }
+            user = gamer.get().getUser();
+            idGame = gamer.get().getGame() != null ? gamer.get().getGame().getIdGame() : null;
+        }
+        if (registry.connect(idGamer, user, idGame, status, System.currentTimeMillis())) {
+            pending.put(idGamer, status);
+        }
+        return true;
+    }
+
+    /**
+     * Registra en línea a un jugador cuyo estado ya está escrito en la base de datos.
+     * @param idGamer el ID del jugador
+     * @param user el nombre de usuario del jugador
+     * @param idGame el ID del juego del jugador, o null
+     * @param status el estado del jugador
+     */
+    public void track(Long idGamer, String user, Long idGame, StatusType status) {
+        registry.connect(idGamer, user, idGame, status, System.currentTimeMillis());
+        pending.remove(idGamer);
+    }
+
+    /**
+     * Registra un latido de un jugador.
+     * @param idGamer el ID del jugador
+     * @return verdadero si el jugador está en línea, falso si debe volver a conectarse
+     */
+    public boolean heartbeat(Long idGamer) {
+        return registry.heartbeat(idGamer, System.currentTimeMillis());
+    }
+
+    /**
+     * Cambia el juego de un jugador en línea.
+     * @param idGamer el ID del jugador
+     * @param idGame el ID del nuevo juego, o null
+     */
+    public void moveTo(Long idGamer, Long idGame) {
+        registry.moveTo(idGamer, idGame);
+    }
+
+    /**
+     * Saca a un jugador del registro y deja pendiente su paso a "Desconectado".
+     * @param idGamer el ID del jugador
+     */
+    public void disconnect(Long idGamer) {
+        PresenceRegistry.Presence presence = registry.disconnect(idGamer);
+        if (presence != null) {
+            offline(presence);
+        }
+    }
+
+    /**
+     * Descarta el estado pendiente de un jugador cuyo estado se escribió directamente en la base de datos.
+     * @param idGamer el ID del jugador
+     */
+    public void discardPending(Long idGamer) {
+        pending.remove(idGamer);
+    }
+
+    /**
+     * Retorna los jugadores en línea de un juego, sin consultar la base de datos.
+     * @param idGame el ID del juego
+     * @return los datos de los jugadores en línea del juego
+     */
+    public List<PresenceRegistry.Presence> roster(Long idGame) {
+        return registry.roster(idGame);
+    }
+
+    /**
+     * Retorna la cantidad de jugadores en línea.
+     * @return la cantidad de jugadores
+     */
+    public int online() {
+        return registry.size();
+    }
+
+    /**
+     * Escribe en la base de datos los estados pendientes al detener el servidor.
+     */
+    @PreDestroy
+    public void flushAll() {
+        flush();
+    }
+
+    /**
+     * Avanza la rueda de vencimientos y pasa a "Desconectado" a los jugadores que dejaron de latir.
+     */
+    private void expire() {
+        try {
+            for (PresenceRegistry.Presence presence : registry.expire(System.currentTimeMillis())) {
+                offline(presence);
+            }
+        } catch (Exception exc) {
+            log.error("Error al vencer los jugadores sin latido", exc);
+        }
+    }
+
+    /**
+     * Deja pendiente el paso a "Desconectado" de un jugador y publica su salida en la lista de jugadores de su juego.
+     * @param presence los datos del jugador
+     */
+    private void offline(PresenceRegistry.Presence presence) {
+        pending.put(presence.idGamer(), StatusType.GAMER_DISCONNECTED);
+        if (presence.idGame() != null) {
+            eventPublisher.publishEvent(new GameEvent(presence.idGame(), GameEvent.Type.ROSTER,
+                    Map.of("disconnected", presence.user())));
+        }
+    }
+
+    /**
+     * Escribe los estados pendientes agrupados por estado, en lotes de IDs, en una sola transacción.
+     * Si la escritura falla, los estados vuelven a quedar pendientes, salvo los que cambiaron mientras tanto.
+     */
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<StatusType, List<Long>> byStatus = new EnumMap<>(StatusType.class);
+        for (Long idGamer : pending.keySet()) {
+            StatusType status = pending.remove(idGamer);
+            if (status != null) {
+                byStatus.computeIfAbsent(status, type -> new ArrayList<>()).add(idGamer);
+            }
+        }
+        try {
+            Instant now = Instant.now();
+            transactionTemplate.executeWithoutResult(tx -> byStatus.forEach((status, ids) -> {
+                for (int from = 0; from < ids.size(); from += batchSize) {
+                    List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                    gamerRepository.updateStatusByIds(batch, status.getId(), now);
+                }
+            }));
+        } catch (Exception exc) {
+            log.error("Error al escribir el estado de {} jugadores", byStatus.values().stream().mapToInt(List::size).sum(), exc);
+            byStatus.forEach((status, ids) -> ids.forEach(idGamer -> pending.putIfAbsent(idGamer, status)));
+        }
+    }
+}
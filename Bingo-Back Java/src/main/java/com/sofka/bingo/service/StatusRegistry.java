@@ -0,0 +1,110 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.Status;
+import com.sofka.bingo.domain.StatusType;
+import com.sofka.bingo.repository.StatusRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Servicio StatusRegistry mantiene en memoria los estados de la tabla "status", cargados al iniciar la aplicación,
+ * de modo que resolver un estado no consulta la base de datos. El contenido es inmutable y se reemplaza
+ * completo con {@link #reload()} cuando la tabla cambia. Cada consulta retorna una copia del estado.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Slf4j
+@Service
+public class StatusRegistry {
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    /**
+     * Estados cargados, indexados por ID.
+     */
+    private volatile Map<Long, Status> statusById = Map.of();
+
+    /**
+     * Vuelve a cargar los estados desde la base de datos.
+     * Advierte si algún estado de {@link StatusType} no existe en la tabla.
+     */
+    @PostConstruct
+    public void reload() {
+        Map<Long, Status> loaded = new LinkedHashMap<>();
+        try {
+            for (Status status : statusRepository.findAll()) {
+                loaded.put(status.getIdStatus(), status);
+            }
+        } catch (Exception exc) {
+            log.error("Error al cargar los estados", exc);
+            return;
+        }
+        for (StatusType type : StatusType.values()) {
+            if (!loaded.containsKey(type.getId())) {
+                log.warn("El estado {} ({}) no existe en la tabla status", type, type.getId());
+            }
+        }
+        statusById = Map.copyOf(loaded);
+    }
+
+    /**
+     * Retorna el estado correspondiente a un tipo de estado. Si el estado no está cargado,
+     * retorna una referencia con el ID y el nombre del tipo.
+     * @param type el tipo de estado
+     * @return el estado
+     */
+    public Status get(StatusType type) {
+        Status status = statusById.get(type.getId());
+        if (status == null) {
+            Status reference = new Status();
+            reference.setIdStatus(type.getId());
+            reference.setStatusName(type.getStatusName());
+            return reference;
+        }
+        return copy(status);
+    }
+
+    /**
+     * Busca un estado por su ID.
+     * @param id el ID del estado
+     * @return el estado, o vacío si no está cargado
+     */
+    public Optional<Status> find(Long id) {
+        Status status = id == null ? null : statusById.get(id);
+        return status == null ? Optional.empty() : Optional.of(copy(status));
+    }
+
+    /**
+     * Retorna todos los estados cargados, ordenados por ID.
+     * @return la lista de estados
+     */
+    public List<Status> getAll() {
+        List<Status> statuses = new ArrayList<>(statusById.size());
+        statusById.values().stream()
+                .sorted((first, second) -> first.getIdStatus().compareTo(second.getIdStatus()))
+                .forEach(status -> statuses.add(copy(status)));
+        return statuses;
+    }
+
+    /**
+     * Copia un estado para que quien lo recibe no pueda modificar el registro.
+     * @param status el estado a copiar
+     * @return la copia del estado
+     */
+    private Status copy(Status status) {
+        Status copy = new Status();
+        copy.setIdStatus(status.getIdStatus());
+        copy.setStatusName(status.getStatusName());
+        copy.setStatusDescription(status.getStatusDescription());
+        return copy;
+    }
+}
@@ -12,6 +12,7 @@ import java.util.Optional;
 
 /**
  * Servicio StatusService establece las operaciones para interactuar con los estados de los jugadores en un juego.
+ * Las consultas se resuelven con el {@link StatusRegistry}; los cambios a la tabla lo vuelven a cargar.
  * @version 1.0.000 2023-01-20
  * @author Wendy Arcila
  */
@@ -20,14 +21,16 @@ public class StatusService implements IStatus {
     @Autowired
     private StatusRepository statusRepository;
 
+    @Autowired
+    private StatusRegistry statusRegistry;
+
     /**
      * Retorna una lista de todos los estados de los jugadores en la base de datos.
      * @return una lista de objetos Status que representan todos los estados de los jugadores en la base de datos
      */
     @Override
-    @Transactional()
     public List<Status> getStatusList() {
-        return (List<Status>) statusRepository.findAll();
+        return statusRegistry.getAll();
     }
 
     /**
@@ -36,9 +39,8 @@ public class StatusService implements IStatus {
      * @return el objeto Status correspondiente al ID especificado, o null si no se encuentra
      */
     @Override
-    @Transactional
     public Optional<Status> findStatus(Long id) {
-        return statusRepository.findById(id);
+        return statusRegistry.find(id);
     }
 
     /**
@@ -49,7 +51,9 @@ public class StatusService implements IStatus {
     @Override
     @Transactional
     public Status postStatus(Status status) {
-        return statusRepository.save(status);
+        Status saved = statusRepository.save(status);
+        statusRegistry.reload();
+        return saved;
     }
 
     /**
@@ -62,7 +66,9 @@ public class StatusService implements IStatus {
     @Transactional
     public Status putStatus(Long id, Status status) {
         status.setIdStatus(id);
-        return statusRepository.save(status);
+        Status saved = statusRepository.save(status);
+        statusRegistry.reload();
+        return saved;
     }
 
     /**
@@ -73,9 +79,24 @@ public class StatusService implements IStatus {
     @Transactional
     public void deleteStatus(Status status) {
         statusRepository.delete(status);
+        statusRegistry.reload();
     }
 
+    /**
+     * Busca si existe un estado con el ID dado.
+     * @param id el ID del estado a buscar
+     * @return verdadero si el estado existe
+     */
     public boolean existsByIdStatus(Long id){
-        return statusRepository.existsById(id);
+        return statusRegistry.find(id).isPresent();
+    }
+
+    /**
+     * Vuelve a cargar el registro de estados desde la base de datos.
+     * @return la lista de estados cargados
+     */
+    public List<Status> reloadStatus() {
+        statusRegistry.reload();
+        return statusRegistry.getAll();
     }
 }
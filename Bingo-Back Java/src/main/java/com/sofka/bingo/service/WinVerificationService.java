@@ -0,0 +1,108 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.Board;
+import com.sofka.bingo.repository.MoveRepository;
+import com.sofka.bingo.utility.BoardMask;
+import com.sofka.bingo.utility.GameFinishedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio WinVerificationService verifica en el servidor si un jugador que pulsó "¡Gané!" realmente ganó.
+ * Mantiene por juego el conjunto de balotas sacadas y los números de los tableros que reclamaron, de modo que
+ * una reclamación se resuelve con unas pocas operaciones AND sobre máscaras de bits. Todo se libera al finalizar el juego.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Service
+public class WinVerificationService {
+
+    @Autowired
+    private GameStateService gameStateService;
+
+    @Autowired
+    private MoveRepository moveRepository;
+
+    /**
+     * Balotas sacadas por juego, indexadas por número de balota.
+     */
+    private final Map<Long, BitSet> drawnByGame = new ConcurrentHashMap<>();
+
+    /**
+     * Números en orden de filas de los tableros que reclamaron en cada juego, indexados por ID del juego
+     * y luego por ID del tablero.
+     */
+    private final Map<Long, Map<Long, int[]>> cellsByGame = new ConcurrentHashMap<>();
+
+    /**
+     * Registra una balota sacada en el conjunto del juego, si ya está cargado en memoria.
+     * @param idGame el ID del juego
+     * @param number el número de la balota sacada
+     */
+    public void registerDraw(Long idGame, int number) {
+        drawnByGame.computeIfPresent(idGame, (id, drawn) -> {
+            synchronized (drawn) {
+                drawn.set(number);
+            }
+            return drawn;
+        });
+    }
+
+    /**
+     * Verifica si el tablero dado tiene una fila, columna o diagonal completa con las balotas del juego.
+     * La primera vez, el conjunto de balotas del juego se construye dentro del mismo cómputo que lo publica,
+     * con las balotas en memoria o guardadas en ese momento, de modo que una balota registrada mientras
+     * se construye no se pierde.
+     * @param idGame el ID del juego en el que se hace la reclamación
+     * @param board el tablero del jugador que reclama
+     * @return verdadero si el tablero tiene una línea completa
+     */
+    public boolean verifyClaim(Long idGame, Board board) {
+        int[] cells = cellsByGame.computeIfAbsent(idGame, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(board.getIdBoard(), id -> BoardMask.cells(board));
+        BitSet drawn = drawnByGame.computeIfAbsent(idGame,
+                id -> gameStateService.drawn(id).orElseGet(() -> loadDrawn(id)));
+        int marked;
+        synchronized (drawn) {
+            marked = BoardMask.marked(cells, drawn);
+        }
+        return BoardMask.hasLine(marked);
+    }
+
+    /**
+     * Libera la información en memoria de un juego.
+     * @param idGame el ID del juego
+     */
+    public void evict(Long idGame) {
+        drawnByGame.remove(idGame);
+        cellsByGame.remove(idGame);
+    }
+
+    /**
+     * Libera la información de un juego cuando el juego finaliza, sin importar quién lo finalizó.
+     * @param event el evento del juego finalizado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameFinished(GameFinishedEvent event) {
+        evict(event.idGame());
+    }
+
+    /**
+     * Construye el conjunto de balotas sacadas a partir de las jugadas guardadas del juego.
+     * Se consulta la base de datos y no las jugadas ya cargadas del juego, que pueden no tener las últimas balotas.
+     * @param idGame el ID del juego
+     * @return el conjunto de balotas sacadas
+     */
+    private BitSet loadDrawn(Long idGame) {
+        BitSet drawn = new BitSet(76);
+        for (Integer number : moveRepository.findNumbersByGame(idGame)) {
+            drawn.set(number);
+        }
+        return drawn;
+    }
+}
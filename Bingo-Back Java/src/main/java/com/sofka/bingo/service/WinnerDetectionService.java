@@ -0,0 +1,117 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.Gamer;
+import com.sofka.bingo.repository.GamerRepository;
+import com.sofka.bingo.repository.MoveRepository;
+import com.sofka.bingo.utility.BoardMask;
+import com.sofka.bingo.utility.GameFinishedEvent;
+import com.sofka.bingo.utility.WinnerIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio WinnerDetectionService detecta en el servidor los ganadores de cada juego en cada balota,
+ * sin esperar a que los jugadores reclamen. Cada juego tiene un índice invertido de números a casillas,
+ * de modo que el costo de una balota depende de cuántos tableros tienen ese número y no del total de tableros.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Service
+public class WinnerDetectionService {
+
+    @Autowired
+    private GamerRepository gamerRepository;
+
+    @Autowired
+    private MoveRepository moveRepository;
+
+    /**
+     * Índice de ganadores de cada juego, indexado por ID del juego.
+     */
+    private final Map<Long, WinnerIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Construye el índice de un juego con los tableros de sus jugadores y las balotas que ya salieron.
+     * @param idGame el ID del juego
+     * @return el índice del juego
+     */
+    public WinnerIndex start(Long idGame) {
+        return indexes.computeIfAbsent(idGame, this::buildIndex);
+    }
+
+    /**
+     * Aplica una balota sacada al índice del juego.
+     * @param idGame el ID del juego
+     * @param number el número de la balota
+     * @return los usuarios que completaron una línea con esta balota, en orden
+     */
+    public List<String> onDraw(Long idGame, int number) {
+        return start(idGame).onDraw(number);
+    }
+
+    /**
+     * Registra en el índice de su juego el tablero de un jugador que se unió después de construido el índice.
+     * @param gamer el jugador con su juego y tablero
+     * @return los usuarios que ganaron al registrar el tablero
+     */
+    public List<String> register(Gamer gamer) {
+        if (gamer.getGame() == null || gamer.getBoard() == null) {
+            return Collections.emptyList();
+        }
+        WinnerIndex index = indexes.get(gamer.getGame().getIdGame());
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        return index.addBoard(gamer.getBoard().getIdBoard(), gamer.getUser(), BoardMask.cells(gamer.getBoard()));
+    }
+
+    /**
+     * Retorna los ganadores detectados de un juego en el orden en que completaron su línea.
+     * @param idGame el ID del juego
+     * @return la lista de ganadores, vacía si el juego no tiene índice o aún no hay ganadores
+     */
+    public List<String> winners(Long idGame) {
+        WinnerIndex index = indexes.get(idGame);
+        return index == null ? Collections.emptyList() : index.getWinners();
+    }
+
+    /**
+     * Libera el índice en memoria de un juego.
+     * @param idGame el ID del juego
+     */
+    public void evict(Long idGame) {
+        indexes.remove(idGame);
+    }
+
+    /**
+     * Libera el índice de un juego cuando el juego finaliza, sin importar quién lo finalizó.
+     * @param event el evento del juego finalizado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameFinished(GameFinishedEvent event) {
+        evict(event.idGame());
+    }
+
+    /**
+     * Construye el índice de un juego a partir de la base de datos. Los tableros del juego se cargan
+     * en una sola consulta y se decodifican desde su columna empaquetada.
+     * @param idGame el ID del juego
+     * @return el índice del juego
+     */
+    private WinnerIndex buildIndex(Long idGame) {
+        WinnerIndex index = new WinnerIndex();
+        for (Gamer gamer : gamerRepository.findByGameWithBoard(idGame)) {
+            index.addBoard(gamer.getBoard().getIdBoard(), gamer.getUser(), BoardMask.cells(gamer.getBoard()));
+        }
+        for (Integer number : moveRepository.findNumbersByGame(idGame)) {
+            index.onDraw(number);
+        }
+        return index;
+    }
+}
@@ -3,6 +3,7 @@ package com.sofka.bingo.service.interfaces;
 import com.sofka.bingo.domain.Board;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * La interfaz IBoard define los métodos para manejar los tableros del juego.
@@ -12,10 +13,20 @@ import java.util.Optional;
 public interface IBoard {
 
     /**
-     * Retorna una lista de todos los tableros disponibles en el sistema.
+     * Retorna una página de tableros con ID mayor al cursor dado, ordenados por ID.
+     * @param after el ID del último tablero de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de tableros a retornar
      * @return una lista de objetos Board
      */
-    List<Board> getBoardList();
+    List<Board> getBoardPage(Long after, int limit);
+
+    /**
+     * Recorre los tableros con ID mayor al cursor dado, ordenados por ID, sin cargarlos todos en memoria.
+     * Después de entregar cada tablero se limpia el contexto de persistencia, junto con lo que se cargó con él.
+     * @param after el ID a partir del cual se recorren los tableros
+     * @param action la acción que recibe cada tablero
+     */
+    void streamBoards(Long after, Consumer<? super Board> action);
 
     /**
      * Busca un tablero por su identificador único.
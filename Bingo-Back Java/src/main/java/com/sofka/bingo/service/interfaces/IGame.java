@@ -1,9 +1,11 @@
 package com.sofka.bingo.service.interfaces;
 
 import com.sofka.bingo.domain.Game;
+import com.sofka.bingo.domain.GameSummary;
 import com.sofka.bingo.domain.Status;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * La interfaz IGame define los métodos para manejar los juegos de bingo.
@@ -13,10 +15,21 @@ import java.util.Optional;
 public interface IGame {
 
     /**
-     * Retorna una lista de todos los juegos disponibles en el sistema.
-     * @return una lista de objetos Game
+     * Retorna una página de resúmenes de juegos con ID mayor al cursor dado, ordenados por ID.
+     * Los resúmenes no cargan los jugadores ni las jugadas de cada juego.
+     * @param after el ID del último juego de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de juegos a retornar
+     * @return una lista de objetos GameSummary
      */
-    public List<Game> getGameList();
+    List<GameSummary> getGamePage(Long after, int limit);
+
+    /**
+     * Recorre los resúmenes de los juegos con ID mayor al cursor dado, ordenados por ID, sin cargarlos
+     * todos en memoria.
+     * @param after el ID a partir del cual se recorren los juegos
+     * @param action la acción que recibe cada resumen
+     */
+    void streamGames(Long after, Consumer<? super GameSummary> action);
 
     /**
      * Busca un juego por su identificador único.
@@ -25,6 +38,20 @@ public interface IGame {
      */
     Optional<Game> findGame(Long id);
 
+    /**
+     * Busca un juego con sus jugadores, y el tablero y estado de cada jugador, en una sola consulta.
+     * @param id el identificador único del juego a buscar
+     * @return un objeto Optional que contiene el juego completo si se encuentra, o vacío si no se encuentra
+     */
+    Optional<Game> findFullGame(Long id);
+
+    /**
+     * Busca el resumen de un juego: estado, ganador, cantidad de jugadores y de jugadas, y la última balota.
+     * @param id el identificador único del juego a buscar
+     * @return un objeto Optional que contiene el resumen si se encuentra el juego, o vacío si no se encuentra
+     */
+    Optional<GameSummary> findGameSummary(Long id);
+
     /**
      * Crea un nuevo juego de bingo.
      * @param game el objeto Game que representa el nuevo juego
@@ -4,6 +4,7 @@ import com.sofka.bingo.domain.Gamer;
 import com.sofka.bingo.domain.Status;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * La interfaz IGamer define los métodos para manejar los jugadores de bingo.
@@ -13,10 +14,20 @@ import java.util.Optional;
 public interface IGamer {
 
     /**
-     * Retorna una lista de todos los gamers.
+     * Retorna una página de jugadores con ID mayor al cursor dado, ordenados por ID.
+     * @param after el ID del último jugador de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de jugadores a retornar
      * @return una lista de objetos Gamer
      */
-    public List<Gamer> getGamerList();
+    List<Gamer> getGamerPage(Long after, int limit);
+
+    /**
+     * Recorre los jugadores con ID mayor al cursor dado, ordenados por ID, sin cargarlos todos en memoria.
+     * Después de entregar cada jugador se limpia el contexto de persistencia, junto con lo que se cargó con él.
+     * @param after el ID a partir del cual se recorren los jugadores
+     * @param action la acción que recibe cada jugador
+     */
+    void streamGamers(Long after, Consumer<? super Gamer> action);
 
 
     /**
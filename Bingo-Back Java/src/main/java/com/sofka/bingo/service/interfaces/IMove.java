@@ -5,6 +5,7 @@ import com.sofka.bingo.domain.Game;
 import com.sofka.bingo.domain.Move;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interfaz que define las operaciones para interactuar con los movimientos de un juego.
@@ -14,10 +15,20 @@ import java.util.Optional;
 public interface IMove {
 
     /**
-     * Retorna una lista de todos los movimientos en la base de datos.
-     * @return una lista de objetos Move que representan todos los movimientos en la base de datos
+     * Retorna una página de movimientos con ID mayor al cursor dado, ordenados por ID.
+     * @param after el ID del último movimiento de la página anterior, 0 para la primera página
+     * @param limit la cantidad máxima de movimientos a retornar
+     * @return una lista de objetos Move
      */
-    List<Move> getMoveList();
+    List<Move> getMovePage(Long after, int limit);
+
+    /**
+     * Recorre los movimientos con ID mayor al cursor dado, ordenados por ID, sin cargarlos todos en memoria.
+     * Después de entregar cada movimiento se limpia el contexto de persistencia, junto con lo que se cargó con él.
+     * @param after el ID a partir del cual se recorren los movimientos
+     * @param action la acción que recibe cada movimiento
+     */
+    void streamMoves(Long after, Consumer<? super Move> action);
 
     /**
      * Busca y retorna un movimiento por su ID.
@@ -27,14 +38,12 @@ public interface IMove {
     Optional<Move> findMove(Long id);
 
     /**
-     * Agrega un nuevo movimiento a la base de datos.
+     * Saca la siguiente balota del mazo del juego y la agrega como un nuevo movimiento a la base de datos.
      * @param move el objeto Move a agregar a la base de datos
-     * @param number el número de la fila del tablero donde se realizó el movimiento
-     * @param letter la letra de la columna del tablero donde se realizó el movimiento
      * @param game el objeto Game al que pertenece el movimiento
-     * @return el objeto Move que se ha agregado a la base de datos
+     * @return el objeto Move que se ha agregado a la base de datos, o null si ya no quedan balotas
      */
-    Move postMove(Move move, int number, String letter, Game game);
+    Move postMove(Move move, Game game);
 
     /**
      * Actualiza un movimiento existente en la base de datos.
@@ -0,0 +1,94 @@
+package com.sofka.bingo.utility;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clase que representa el mazo de balotas de un juego.
+ * Las 75 balotas se barajan una sola vez con el algoritmo Fisher-Yates a partir de la semilla del juego,
+ * de modo que cada sacada toma la siguiente balota en tiempo constante y nunca se repite un número.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public class BallDeck {
+
+    /**
+     * Cantidad de balotas del juego (1 a 75).
+     */
+    public static final int BALLS = 75;
+
+    /**
+     * Valor que retorna el mazo cuando ya no quedan balotas.
+     */
+    public static final int EMPTY = 0;
+
+    private final int[] balls = new int[BALLS];
+
+    private final AtomicInteger position = new AtomicInteger();
+
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    /**
+     * Construye el mazo barajado de un juego.
+     * Las balotas que ya salieron se ubican al inicio del mazo para que no vuelvan a salir,
+     * lo que permite reconstruir el mazo de un juego en curso.
+     * @param seed la semilla del juego
+     * @param drawn los números que ya salieron en el juego
+     */
+    public BallDeck(long seed, Collection<Integer> drawn) {
+        for (int i = 0; i < BALLS; i++) {
+            balls[i] = i + 1;
+        }
+        Random random = new Random(seed);
+        for (int i = BALLS - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int ball = balls[i];
+            balls[i] = balls[j];
+            balls[j] = ball;
+        }
+        int front = 0;
+        for (int i = 0; i < BALLS; i++) {
+            if (drawn.contains(balls[i])) {
+                int ball = balls[i];
+                System.arraycopy(balls, front, balls, front + 1, i - front);
+                balls[front++] = ball;
+            }
+        }
+        position.set(front);
+    }
+
+    /**
+     * Saca la siguiente balota del mazo.
+     * @return el número de la balota, o {@link #EMPTY} si ya no quedan balotas
+     */
+    public int next() {
+        int index = position.getAndIncrement();
+        return index < BALLS ? balls[index] : EMPTY;
+    }
+
+    /**
+     * Retorna la cantidad de balotas que ya salieron del mazo, que es también la posición de la última balota.
+     * @return la cantidad de balotas sacadas
+     */
+    public int drawn() {
+        return Math.min(position.get(), BALLS);
+    }
+
+    /**
+     * Retorna la cantidad de balotas que quedan en el mazo.
+     * @return la cantidad de balotas restantes
+     */
+    public int remaining() {
+        return Math.max(0, BALLS - position.get());
+    }
+
+    /**
+     * Marca el mazo como terminado.
+     * @return verdadero solo la primera vez que se marca, para finalizar el juego una única vez
+     */
+    public boolean finish() {
+        return finished.compareAndSet(false, true);
+    }
+}
@@ -0,0 +1,154 @@
+package com.sofka.bingo.utility;
+
+import com.sofka.bingo.domain.Board;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Clase que representa un tablero de bingo como una máscara de 25 bits.
+ * Cada casilla ocupa un bit en orden de filas (B1, I1, N1, G1, O1, B2, ... O5), de modo que
+ * verificar una fila, columna o diagonal es una sola operación AND contra una máscara precalculada.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public final class BoardMask {
+
+    /**
+     * Cantidad de filas y columnas del tablero.
+     */
+    public static final int SIZE = 5;
+
+    /**
+     * Cantidad de casillas del tablero.
+     */
+    public static final int CELLS = SIZE * SIZE;
+
+    /**
+     * Máscaras de las 12 líneas ganadoras: 5 filas, 5 columnas y 2 diagonales.
+     */
+    private static final int[] LINES = new int[2 * SIZE + 2];
+
+    /**
+     * Índices de las líneas a las que pertenece cada casilla.
+     */
+    private static final int[][] LINES_BY_CELL = new int[CELLS][];
+
+    static {
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                LINES[i] |= bit(i, j);
+                LINES[SIZE + i] |= bit(j, i);
+            }
+            LINES[2 * SIZE] |= bit(i, i);
+            LINES[2 * SIZE + 1] |= bit(i, SIZE - 1 - i);
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            int count = 0;
+            int[] lines = new int[4];
+            for (int line = 0; line < LINES.length; line++) {
+                if ((LINES[line] & (1 << cell)) != 0) {
+                    lines[count++] = line;
+                }
+            }
+            LINES_BY_CELL[cell] = Arrays.copyOf(lines, count);
+        }
+    }
+
+    private BoardMask() {
+    }
+
+    /**
+     * Retorna el bit que corresponde a la casilla de la fila y columna dadas.
+     * @param row la fila de la casilla (0 a 4)
+     * @param column la columna de la casilla (0 a 4)
+     * @return la máscara con un único bit encendido
+     */
+    public static int bit(int row, int column) {
+        return 1 << (row * SIZE + column);
+    }
+
+    /**
+     * Retorna la cantidad de líneas ganadoras posibles.
+     * @return la cantidad de líneas
+     */
+    public static int lineCount() {
+        return LINES.length;
+    }
+
+    /**
+     * Retorna los índices de las líneas a las que pertenece una casilla.
+     * @param cell la posición de la casilla en orden de filas (0 a 24)
+     * @return los índices de las líneas que contienen la casilla
+     */
+    public static int[] linesOf(int cell) {
+        return LINES_BY_CELL[cell];
+    }
+
+    /**
+     * Extrae los 25 números de un tablero en orden de filas.
+     * @param board el tablero a convertir
+     * @return un arreglo con los números del tablero, que no debe modificarse
+     */
+    public static int[] cells(Board board) {
+        return board.getNumbers();
+    }
+
+    /**
+     * Calcula la huella de 64 bits de un tablero a partir de sus 25 números en orden de filas.
+     * Dos tableros iguales siempre tienen la misma huella.
+     * @param cells los números del tablero en orden de filas
+     * @return la huella del tablero
+     */
+    public static long fingerprint(int[] cells) {
+        long h = 0xCBF29CE484222325L;
+        for (int cell = 0; cell < CELLS; cell++) {
+            h = (h ^ cells[cell]) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Construye la máscara de casillas marcadas de un tablero según las balotas sacadas.
+     * @param cells los números del tablero en orden de filas
+     * @param drawn el conjunto de balotas sacadas, indexado por número
+     * @return la máscara de 25 bits con las casillas cuyo número ya salió
+     */
+    public static int marked(int[] cells, BitSet drawn) {
+        int mask = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (drawn.get(cells[cell])) {
+                mask |= 1 << cell;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Busca la primera línea completa dentro de una máscara de casillas marcadas.
+     * @param marked la máscara de casillas marcadas
+     * @return el índice de la línea completa, o -1 si no hay ninguna
+     */
+    public static int winningLine(int marked) {
+        for (int line = 0; line < LINES.length; line++) {
+            if ((marked & LINES[line]) == LINES[line]) {
+                return line;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Indica si una máscara de casillas marcadas contiene al menos una línea completa.
+     * @param marked la máscara de casillas marcadas
+     * @return verdadero si hay una fila, columna o diagonal completa
+     */
+    public static boolean hasLine(int marked) {
+        return winningLine(marked) >= 0;
+    }
+}
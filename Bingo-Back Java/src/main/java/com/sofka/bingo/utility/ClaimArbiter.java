@@ -0,0 +1,126 @@
+package com.sofka.bingo.utility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Clase que decide el ganador de un juego entre reclamaciones válidas simultáneas.
+ * La primera reclamación gana y abre una ventana de empate: las reclamaciones válidas que llegan
+ * dentro de la ventana se registran como ganadores empatados y las que llegan después pierden.
+ * Cada reclamación se resuelve con un compare-and-set sobre una ronda inmutable, sin candados.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public class ClaimArbiter {
+
+    /**
+     * Resultado de una reclamación.
+     */
+    public enum Outcome {
+        WON, TIED, LATE
+    }
+
+    /**
+     * Ronda de reclamaciones de un juego.
+     * @param firstAt el momento de la primera reclamación, en milisegundos desde la época
+     * @param winners los ganadores en orden de llegada
+     * @param closed verdadero si la ventana de empate ya se cerró
+     */
+    private record Round(long firstAt, List<String> winners, boolean closed) {
+    }
+
+    private final long tieWindowMs;
+
+    private final AtomicReference<Round> round = new AtomicReference<>();
+
+    /**
+     * Ganadores definitivos del juego, una vez que se registran en la base de datos.
+     */
+    private final CompletableFuture<List<String>> settled = new CompletableFuture<>();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Construye un árbitro sin reclamaciones.
+     * @param tieWindowMs la duración de la ventana de empate, en milisegundos
+     */
+    public ClaimArbiter(long tieWindowMs) {
+        this.tieWindowMs = tieWindowMs;
+    }
+
+    /**
+     * Registra la reclamación válida de un usuario. Un usuario que reclama de nuevo conserva su resultado.
+     * @param user el nombre de usuario que reclama
+     * @param now el momento de la reclamación, en milisegundos desde la época
+     * @return {@link Outcome#WON} si es la primera reclamación, {@link Outcome#TIED} si llegó dentro
+     *         de la ventana de empate, o {@link Outcome#LATE} si llegó después
+     */
+    public Outcome claim(String user, long now) {
+        while (true) {
+            Round current = round.get();
+            if (current == null) {
+                if (round.compareAndSet(null, new Round(now, List.of(user), false))) {
+                    return Outcome.WON;
+                }
+                continue;
+            }
+            int position = current.winners().indexOf(user);
+            if (position >= 0) {
+                return position == 0 ? Outcome.WON : Outcome.TIED;
+            }
+            if (current.closed() || now - current.firstAt() > tieWindowMs) {
+                return Outcome.LATE;
+            }
+            List<String> winners = new ArrayList<>(current.winners());
+            winners.add(user);
+            if (round.compareAndSet(current, new Round(current.firstAt(), List.copyOf(winners), false))) {
+                return Outcome.TIED;
+            }
+        }
+    }
+
+    /**
+     * Cierra la ventana de empate; las reclamaciones siguientes pierden.
+     * @return los ganadores en orden de llegada
+     */
+    public List<String> close() {
+        while (true) {
+            Round current = round.get();
+            if (current == null) {
+                return Collections.emptyList();
+            }
+            if (current.closed() || round.compareAndSet(current, new Round(current.firstAt(), current.winners(), true))) {
+                return current.winners();
+            }
+        }
+    }
+
+    /**
+     * Retorna los ganadores registrados hasta ahora, en orden de llegada.
+     * @return la lista de ganadores
+     */
+    public List<String> getWinners() {
+        Round current = round.get();
+        return current == null ? Collections.emptyList() : current.winners();
+    }
+
+    /**
+     * Marca que ya se programó el registro de los ganadores.
+     * @return verdadero solo la primera vez que se marca, para registrar los ganadores una única vez
+     */
+    public boolean markScheduled() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Retorna los ganadores definitivos, que se completan cuando se registran en la base de datos.
+     * @return el futuro con los ganadores definitivos
+     */
+    public CompletableFuture<List<String>> getSettled() {
+        return settled;
+    }
+}
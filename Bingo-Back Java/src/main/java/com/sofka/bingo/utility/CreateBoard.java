@@ -2,42 +2,97 @@ package com.sofka.bingo.utility;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Clase que genera un tablero de juego aleatorio.
+ * Cada columna toma 5 números distintos de su rango de 15 (B 1-15, I 16-30, N 31-45, G 46-60, O 61-75)
+ * con una mezcla parcial de Fisher-Yates, sin reintentos.
  * @version 1.0.000 2023-02-28
  * @author Wendy Arcila
  */
 public class CreateBoard {
 
+    /**
+     * Cantidad de números del rango de cada columna.
+     */
+    private static final int RANGE = 15;
+
+    /**
+     * Cantidad de filas y columnas del tablero.
+     */
+    private static final int SIZE = 5;
+
     /**
      * Genera un número aleatorio dentro de un rango especificado.
      * @param rangeMax el valor máximo del rango para el número aleatorio
      * @return un número aleatorio dentro del rango especificado
      */
     public int randomNumber(int rangeMax){
-        Random random = new Random();
-        return random.nextInt(15) + rangeMax;
+        return ThreadLocalRandom.current().nextInt(RANGE) + rangeMax;
     }
 
     /**
-     * Genera una nueva fila del tablero de juego con números aleatorios.
-     * @return una lista de enteros que representa una nueva fila del tablero de juego
+     * Genera una nueva columna del tablero de juego con 5 números aleatorios distintos.
+     * @param range el primer número del rango de la columna
+     * @return una lista de enteros que representa una nueva columna del tablero de juego
      */
     public List<Integer> newColumn(int range){
-        List<Integer> column = new ArrayList<>();
-        int num = 0;
-        for (int i = 0; i < 15; i++) {
-            if (column.size() < 6) {
-                num = randomNumber(range);
-                if (!column.contains(num)){
-                    column.add(num);
-                }
-            }else {
-                break;
-            }
+        int[] pool = shuffledColumn(range);
+        List<Integer> column = new ArrayList<>(SIZE);
+        for (int row = 0; row < SIZE; row++) {
+            column.add(pool[row]);
         }
         return column;
     }
+
+    /**
+     * Genera los 25 números de un tablero nuevo en orden de filas (B1, I1, N1, G1, O1, B2, ... O5).
+     * @return un arreglo con los números del tablero
+     */
+    public int[] newCard(){
+        int[] card = new int[SIZE * SIZE];
+        for (int column = 0; column < SIZE; column++) {
+            int[] pool = shuffledColumn(column * RANGE + 1);
+            for (int row = 0; row < SIZE; row++) {
+                card[row * SIZE + column] = pool[row];
+            }
+        }
+        return card;
+    }
+
+    /**
+     * Genera un tablero nuevo cuya huella no esté en el conjunto dado y agrega su huella al conjunto.
+     * Si la huella del tablero generado ya está en el conjunto, se descarta y se genera otro.
+     * Quien llama debe sincronizar el acceso al conjunto.
+     * @param fingerprints las huellas de los tableros que no se pueden repetir
+     * @return un arreglo con los números del tablero en orden de filas
+     */
+    public int[] newUniqueCard(LongHashSet fingerprints){
+        int[] card = newCard();
+        while (!fingerprints.add(BoardMask.fingerprint(card))) {
+            card = newCard();
+        }
+        return card;
+    }
+
+    /**
+     * Mezcla parcialmente el rango de una columna para que sus primeras 5 posiciones sean números distintos al azar.
+     * @param range el primer número del rango de la columna
+     * @return el rango de la columna con sus primeras 5 posiciones mezcladas
+     */
+    private int[] shuffledColumn(int range){
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] pool = new int[RANGE];
+        for (int i = 0; i < RANGE; i++) {
+            pool[i] = range + i;
+        }
+        for (int row = 0; row < SIZE; row++) {
+            int j = row + random.nextInt(RANGE - row);
+            int number = pool[row];
+            pool[row] = pool[j];
+            pool[j] = number;
+        }
+        return pool;
+    }
 }
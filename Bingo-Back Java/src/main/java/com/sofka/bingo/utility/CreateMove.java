@@ -1,24 +1,13 @@
 package com.sofka.bingo.utility;
 
 
-import java.util.Random;
-
 /**
- * Clase que crea un movimiento aleatorio en el juego.
+ * Clase que crea un movimiento en el juego. Los números salen del mazo barajado del juego ({@link BallDeck}).
  * @version 1.0.000 2023-02-28
  * @author Wendy Arcila
  */
 public class CreateMove {
 
-    /**
-     * Genera un número aleatorio entre 1 y 74 para el movimiento.
-     * @return un número aleatorio para el movimiento
-     */
-    public int randomNumber(){
-        Random random = new Random();
-        return random.nextInt(74)+1;
-    }
-
     /**
      * Asigna una letra a un número según el rango en el que se encuentra.
      * @param number el número para el cual se asignará una letra
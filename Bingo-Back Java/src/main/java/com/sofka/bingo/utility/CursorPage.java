@@ -0,0 +1,40 @@
+package com.sofka.bingo.utility;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Clase con las utilidades de la paginación por cursor de los listados.
+ * Cada página se pide con el ID del último registro de la página anterior, y la respuesta
+ * indica en un encabezado el cursor de la siguiente página cuando puede haber más registros.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public final class CursorPage {
+
+    /**
+     * Encabezado de la respuesta con el cursor de la siguiente página.
+     */
+    public static final String NEXT_HEADER = "X-Next-After";
+
+    private CursorPage() {
+    }
+
+    /**
+     * Construye los encabezados de una página. Si la página está llena, se agrega el cursor de la siguiente.
+     * @param page los registros de la página
+     * @param limit la cantidad máxima de registros pedida
+     * @param id la función que retorna el ID de un registro
+     * @param <T> el tipo de los registros
+     * @return los encabezados de la respuesta
+     */
+    public static <T> HttpHeaders headers(List<T> page, int limit, Function<T, Long> id) {
+        HttpHeaders headers = new HttpHeaders();
+        if (!page.isEmpty() && page.size() == limit) {
+            headers.add(NEXT_HEADER, String.valueOf(id.apply(page.get(page.size() - 1))));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,286 @@
+package com.sofka.bingo.utility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Clase que representa el diario de eventos de los juegos de un nodo: balotas, reclamaciones y cambios de estado.
+ * Los eventos se agregan al final de un archivo mapeado en memoria, de modo que escribir un evento
+ * es copiar unos pocos bytes; el archivo se baja a disco con {@link #force()} cada cierto tiempo.
+ * Cada registro tiene la forma {@code [longitud][cuerpo][crc32]} y el diario termina en el primer registro
+ * con longitud cero o con un crc que no coincide, por lo que un registro a medio escribir se descarta al releer.
+ * Cuando todos los juegos del diario quedan cerrados, el diario vuelve a empezar; cuando se llena,
+ * se reescribe solo con los eventos de los juegos abiertos.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public class DrawJournal implements Closeable {
+
+    /**
+     * Tipos de evento del diario.
+     */
+    public enum Type {
+        DRAW, STATUS, CLAIM, CLOSED
+    }
+
+    /**
+     * Evento del diario.
+     * @param type el tipo de evento
+     * @param idGame el ID del juego
+     * @param timestamp el momento del evento, en milisegundos desde la época
+     * @param value el número de la balota o el ID del estado, según el tipo
+     * @param text el usuario que reclama, o null si el evento no es una reclamación
+     */
+    public record Entry(Type type, long idGame, long timestamp, int value, String text) {
+    }
+
+    /**
+     * Tamaño del cuerpo de un registro sin contar el texto: tipo, juego, momento, valor y longitud del texto.
+     */
+    private static final int FIXED_BODY = Byte.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES + Short.BYTES;
+
+    /**
+     * Bytes que se agregan al cuerpo de cada registro: su longitud al inicio y su crc al final.
+     */
+    private static final int FRAME = Integer.BYTES + Integer.BYTES;
+
+    private final Path path;
+
+    private final int capacity;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    /**
+     * Juegos con eventos en el diario que aún no se cierran.
+     */
+    private final Set<Long> openGames = new HashSet<>();
+
+    private boolean dirty;
+
+    /**
+     * Abre el diario en el archivo dado, creándolo si no existe, y se ubica al final de los eventos ya escritos.
+     * @param path la ruta del archivo del diario
+     * @param capacity el tamaño del archivo en bytes
+     * @throws IOException si el archivo no se puede abrir o mapear
+     */
+    public DrawJournal(Path path, int capacity) throws IOException {
+        this.path = path;
+        this.capacity = capacity;
+        map();
+        for (Entry entry : read()) {
+            track(entry);
+        }
+    }
+
+    /**
+     * Agrega un evento al diario con el momento actual.
+     * @param type el tipo de evento
+     * @param idGame el ID del juego
+     * @param value el número de la balota o el ID del estado, según el tipo
+     * @param text el usuario que reclama, o null si el evento no es una reclamación
+     * @throws IOException si el evento no cabe en el diario aun después de compactarlo
+     */
+    public synchronized void append(Type type, long idGame, int value, String text) throws IOException {
+        write(new Entry(type, idGame, System.currentTimeMillis(), value, text));
+        if (type == Type.CLOSED && openGames.isEmpty()) {
+            reset();
+        }
+    }
+
+    /**
+     * Retorna los eventos de los juegos que aún no se cierran, en el orden en que se escribieron.
+     * @return la lista de eventos por reproducir
+     */
+    public synchronized List<Entry> replay() {
+        int position = buffer.position();
+        List<Entry> entries = read();
+        buffer.position(position);
+        entries.removeIf(entry -> !openGames.contains(entry.idGame()));
+        return entries;
+    }
+
+    /**
+     * Baja a disco los eventos escritos desde la última vez.
+     */
+    public synchronized void force() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Retorna la cantidad de bytes usados del diario.
+     * @return los bytes usados
+     */
+    public synchronized int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Retorna los juegos con eventos en el diario que aún no se cierran.
+     * @return una copia del conjunto de juegos abiertos
+     */
+    public synchronized Set<Long> getOpenGames() {
+        return new HashSet<>(openGames);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Escribe un evento al final del diario, compactándolo antes si el evento no cabe.
+     * La longitud del registro se escribe al final, después de marcar el fin del diario tras el registro,
+     * para que un registro incompleto nunca se lea como válido.
+     * @param entry el evento
+     * @throws IOException si el evento no cabe en el diario aun después de compactarlo
+     */
+    private void write(Entry entry) throws IOException {
+        byte[] body = encode(entry);
+        int size = FRAME + body.length;
+        if (buffer.position() + size + Integer.BYTES > capacity) {
+            compact();
+            if (buffer.position() + size + Integer.BYTES > capacity) {
+                throw new IOException("El diario " + path + " está lleno");
+            }
+        }
+        int start = buffer.position();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        buffer.putInt(start + size, 0);
+        buffer.position(start + Integer.BYTES);
+        buffer.put(body);
+        buffer.putInt((int) crc.getValue());
+        buffer.putInt(start, body.length);
+        track(entry);
+        dirty = true;
+    }
+
+    /**
+     * Lee los eventos válidos desde el inicio del diario y deja la posición al final del último de ellos.
+     * @return la lista de eventos leídos
+     */
+    private List<Entry> read() {
+        List<Entry> entries = new ArrayList<>();
+        int position = 0;
+        while (position + Integer.BYTES <= capacity) {
+            int length = buffer.getInt(position);
+            if (length < FIXED_BODY || position + FRAME + length > capacity) {
+                break;
+            }
+            byte[] body = new byte[length];
+            buffer.get(position + Integer.BYTES, body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES + length)) {
+                break;
+            }
+            entries.add(decode(body));
+            position += FRAME + length;
+        }
+        buffer.position(position);
+        return entries;
+    }
+
+    /**
+     * Reescribe el diario en un archivo nuevo solo con los eventos de los juegos abiertos
+     * y lo reemplaza de forma atómica.
+     * @throws IOException si el archivo nuevo no se puede escribir o mover
+     */
+    private void compact() throws IOException {
+        List<Entry> live = replay();
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        try (DrawJournal target = new DrawJournal(compacted, capacity)) {
+            for (Entry entry : live) {
+                target.write(entry);
+            }
+        }
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        openGames.clear();
+        map();
+        for (Entry entry : read()) {
+            track(entry);
+        }
+    }
+
+    /**
+     * Vuelve a empezar el diario cuando ya no tiene juegos abiertos.
+     */
+    private void reset() {
+        buffer.putInt(0, 0);
+        buffer.position(0);
+        dirty = true;
+    }
+
+    /**
+     * Abre y mapea en memoria el archivo del diario.
+     * @throws IOException si el archivo no se puede abrir o mapear
+     */
+    private void map() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * Actualiza el conjunto de juegos abiertos con un evento.
+     * @param entry el evento
+     */
+    private void track(Entry entry) {
+        if (entry.type() == Type.CLOSED) {
+            openGames.remove(entry.idGame());
+        } else {
+            openGames.add(entry.idGame());
+        }
+    }
+
+    private static byte[] encode(Entry entry) {
+        byte[] text = entry.text() == null ? new byte[0] : entry.text().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(FIXED_BODY + text.length)
+                .put((byte) entry.type().ordinal())
+                .putLong(entry.idGame())
+                .putLong(entry.timestamp())
+                .putInt(entry.value())
+                .putShort((short) (entry.text() == null ? -1 : text.length))
+                .put(text)
+                .array();
+    }
+
+    private static Entry decode(byte[] body) {
+        ByteBuffer data = ByteBuffer.wrap(body);
+        Type type = Type.values()[data.get()];
+        long idGame = data.getLong();
+        long timestamp = data.getLong();
+        int value = data.getInt();
+        short length = data.getShort();
+        String text = null;
+        if (length >= 0) {
+            byte[] bytes = new byte[length];
+            data.get(bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new Entry(type, idGame, timestamp, value, text);
+    }
+}
@@ -0,0 +1,78 @@
+package com.sofka.bingo.utility;
+
+import com.sofka.bingo.domain.Draw;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Clase que guarda en un búfer circular las últimas balotas de un juego, indexadas por su posición,
+ * para responder "las balotas desde la posición N" con una copia de solo las que faltan.
+ * El búfer recuerda la primera posición que recibió, de modo que no responde por balotas
+ * anteriores a ella aunque tenga espacio.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public class DrawRing {
+
+    private final Draw[] slots;
+
+    /**
+     * Posición de la primera balota registrada, o 0 si el búfer está vacío.
+     */
+    private int first;
+
+    /**
+     * Posición de la última balota registrada, o 0 si el búfer está vacío.
+     */
+    private int last;
+
+    /**
+     * Construye un búfer vacío.
+     * @param capacity la cantidad de balotas que se conservan
+     */
+    public DrawRing(int capacity) {
+        this.slots = new Draw[capacity];
+    }
+
+    /**
+     * Registra una balota. Las balotas con una posición que no es mayor a la última registrada se ignoran.
+     * @param draw la balota
+     */
+    public synchronized void add(Draw draw) {
+        int seq = draw.seq();
+        if (seq <= last) {
+            return;
+        }
+        if (first == 0 || seq > last + 1) {
+            first = seq;
+        }
+        slots[seq % slots.length] = draw;
+        last = seq;
+    }
+
+    /**
+     * Retorna las balotas con posición mayor a la dada, si el búfer todavía las tiene todas.
+     * @param seq la posición de la última balota que tiene el cliente, 0 si no tiene ninguna
+     * @return las balotas en orden de posición, o vacío si el búfer no alcanza a cubrirlas
+     */
+    public synchronized Optional<List<Draw>> since(int seq) {
+        if (last == 0) {
+            return Optional.empty();
+        }
+        if (seq >= last) {
+            return Optional.of(Collections.emptyList());
+        }
+        int oldest = Math.max(first, last - slots.length + 1);
+        if (seq + 1 < oldest) {
+            return Optional.empty();
+        }
+        List<Draw> draws = new ArrayList<>(last - seq);
+        for (int position = seq + 1; position <= last; position++) {
+            draws.add(slots[position % slots.length]);
+        }
+        return Optional.of(draws);
+    }
+}
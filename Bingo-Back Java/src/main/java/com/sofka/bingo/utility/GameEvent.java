@@ -0,0 +1,24 @@
+package com.sofka.bingo.utility;
+
+/**
+ * Evento de un juego que se publica a quienes siguen la sala: conteo regresivo, balotas,
+ * cambios de estado, cambios en la lista de jugadores y ganadores.
+ * @param idGame el ID del juego
+ * @param type el tipo de evento
+ * @param payload los datos del evento, serializables a JSON
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public record GameEvent(Long idGame, Type type, Object payload) {
+
+    /**
+     * Tipos de eventos de un juego.
+     */
+    public enum Type {
+        TIMER,
+        DRAW,
+        STATUS,
+        ROSTER,
+        WINNER
+    }
+}
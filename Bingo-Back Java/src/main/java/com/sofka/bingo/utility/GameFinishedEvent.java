@@ -0,0 +1,12 @@
+package com.sofka.bingo.utility;
+
+/**
+ * Evento que se publica cuando un juego pasa a "Finalizado", por cualquier camino: el ciclo del juego,
+ * el mazo agotado, el registro de los ganadores o un cambio de estado enviado por el cliente.
+ * Los servicios que guardan información en memoria de un juego lo escuchan para liberarla.
+ * @param idGame el ID del juego
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public record GameFinishedEvent(Long idGame) {
+}
@@ -0,0 +1,253 @@
+package com.sofka.bingo.utility;
+
+import com.sofka.bingo.domain.StatusType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Clase que representa el estado en memoria de un juego mientras está activo: su estado, sus jugadores,
+ * las balotas que salieron y su ganador. Mientras el juego está activo, este objeto es la fuente de verdad;
+ * los cambios quedan pendientes hasta que se escriben por lotes en la base de datos.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public class GameState {
+
+    private final Long idGame;
+
+    private StatusType status;
+
+    private String winner;
+
+    private Instant updateAt;
+
+    private final Set<String> roster = new LinkedHashSet<>();
+
+    private final BitSet drawn = new BitSet(BallDeck.BALLS + 1);
+
+    private int draws;
+
+    private Integer lastNumber;
+
+    private String lastLetter;
+
+    /**
+     * Balotas que aún no se escriben en la base de datos, en orden de salida.
+     */
+    private List<PendingMove> pendingMoves = new ArrayList<>();
+
+    /**
+     * Estado que aún no se escribe en la base de datos, o null si no hay cambios.
+     */
+    private StatusType pendingStatus;
+
+    /**
+     * Ganador que aún no se escribe en la base de datos, o null si no hay cambios.
+     */
+    private String pendingWinner;
+
+    /**
+     * Candado con el que se ordenan las escrituras del juego en la base de datos,
+     * separado del candado del estado para que las balotas no esperen a la base de datos.
+     */
+    private final Object flushLock = new Object();
+
+    /**
+     * Construye el estado de un juego a partir de lo que ya está guardado en la base de datos.
+     * @param idGame el ID del juego
+     * @param status el estado del juego, o null si no tiene
+     * @param winner el ganador del juego, o null si no tiene
+     * @param updateAt la fecha de la última actualización del juego
+     * @param roster los usuarios de los jugadores del juego
+     * @param numbers los números de las balotas que ya salieron, en orden de salida
+     */
+    public GameState(Long idGame, StatusType status, String winner, Instant updateAt,
+                     Collection<String> roster, List<Integer> numbers) {
+        this.idGame = idGame;
+        this.status = status;
+        this.winner = winner;
+        this.updateAt = updateAt;
+        this.roster.addAll(roster);
+        for (Integer number : numbers) {
+            drawn.set(number);
+            lastNumber = number;
+        }
+        this.draws = numbers.size();
+        this.lastLetter = lastNumber == null ? null : new CreateMove().letter(lastNumber);
+    }
+
+    /**
+     * Registra una balota sacada.
+     * @param seq la posición de la balota en el juego
+     * @param number el número de la balota
+     * @param letter la letra de la balota
+     * @return verdadero si la balota es nueva, falso si ya había salido
+     */
+    public synchronized boolean draw(int seq, int number, String letter) {
+        if (drawn.get(number)) {
+            return false;
+        }
+        drawn.set(number);
+        draws++;
+        lastNumber = number;
+        lastLetter = letter;
+        updateAt = Instant.now();
+        pendingMoves.add(new PendingMove(seq, number, letter));
+        return true;
+    }
+
+    /**
+     * Cambia el estado del juego.
+     * @param status el nuevo estado
+     */
+    public synchronized void changeStatus(StatusType status) {
+        this.status = status;
+        this.updateAt = Instant.now();
+        this.pendingStatus = status;
+    }
+
+    /**
+     * Registra el ganador del juego, solo si aún no tiene uno.
+     * @param winner el nombre de usuario del ganador
+     * @return el ganador del juego, que puede ser uno registrado antes
+     */
+    public synchronized String setWinner(String winner) {
+        if (this.winner == null && winner != null) {
+            this.winner = winner;
+            this.pendingWinner = winner;
+        }
+        return this.winner;
+    }
+
+    /**
+     * Agrega un jugador al juego.
+     * @param user el nombre de usuario del jugador
+     */
+    public synchronized void join(String user) {
+        roster.add(user);
+    }
+
+    /**
+     * Saca un jugador del juego.
+     * @param user el nombre de usuario del jugador
+     */
+    public synchronized void leave(String user) {
+        roster.remove(user);
+    }
+
+    /**
+     * Retorna una copia de las balotas que salieron, indexadas por número.
+     * @return el conjunto de balotas sacadas
+     */
+    public synchronized BitSet getDrawn() {
+        return (BitSet) drawn.clone();
+    }
+
+    /**
+     * Retorna la cantidad de jugadores del juego.
+     * @return la cantidad de jugadores
+     */
+    public synchronized int getGamers() {
+        return roster.size();
+    }
+
+    /**
+     * Retorna una copia de los usuarios de los jugadores del juego.
+     * @return los usuarios de los jugadores
+     */
+    public synchronized List<String> getRoster() {
+        return new ArrayList<>(roster);
+    }
+
+    /**
+     * Retorna una copia de los datos del juego que se exponen en su resumen.
+     * @return la foto del estado del juego
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(idGame, status, winner, roster.size(), draws, lastNumber, lastLetter, updateAt);
+    }
+
+    /**
+     * Toma los cambios pendientes para escribirlos en la base de datos y deja el juego sin cambios pendientes.
+     * @return los cambios pendientes
+     */
+    public synchronized Pending drainPending() {
+        Pending pending = new Pending(pendingMoves, pendingStatus, pendingWinner, updateAt);
+        pendingMoves = new ArrayList<>();
+        pendingStatus = null;
+        pendingWinner = null;
+        return pending;
+    }
+
+    /**
+     * Devuelve a la cola los cambios que no se pudieron escribir, antes de los cambios que llegaron después.
+     * @param pending los cambios que no se escribieron
+     */
+    public synchronized void requeue(Pending pending) {
+        List<PendingMove> moves = new ArrayList<>(pending.moves());
+        moves.addAll(pendingMoves);
+        pendingMoves = moves;
+        if (pendingStatus == null) {
+            pendingStatus = pending.status();
+        }
+        if (pendingWinner == null) {
+            pendingWinner = pending.winner();
+        }
+    }
+
+    public Long getIdGame() {
+        return idGame;
+    }
+
+    public Object getFlushLock() {
+        return flushLock;
+    }
+
+    /**
+     * Balota que aún no se escribe en la base de datos.
+     * @param seq la posición de la balota en el juego
+     * @param number el número de la balota
+     * @param letter la letra de la balota
+     */
+    public record PendingMove(int seq, int number, String letter) {
+    }
+
+    /**
+     * Cambios de un juego que aún no se escriben en la base de datos.
+     * @param moves las balotas, en orden de salida
+     * @param status el nuevo estado, o null si no cambió
+     * @param winner el ganador, o null si no cambió
+     * @param updateAt la fecha de la última actualización
+     */
+    public record Pending(List<PendingMove> moves, StatusType status, String winner, Instant updateAt) {
+
+        /**
+         * Indica si no hay cambios por escribir.
+         * @return verdadero si no hay cambios
+         */
+        public boolean isEmpty() {
+            return moves.isEmpty() && status == null && winner == null;
+        }
+    }
+
+    /**
+     * Foto de los datos del juego en un momento dado.
+     * @param idGame el ID del juego
+     * @param status el estado del juego
+     * @param winner el ganador del juego
+     * @param gamers la cantidad de jugadores
+     * @param draws la cantidad de balotas sacadas
+     * @param lastNumber el número de la última balota
+     * @param lastLetter la letra de la última balota
+     * @param updateAt la fecha de la última actualización
+     */
+    public record Snapshot(Long idGame, StatusType status, String winner, int gamers, int draws,
+                           Integer lastNumber, String lastLetter, Instant updateAt) {
+    }
+}
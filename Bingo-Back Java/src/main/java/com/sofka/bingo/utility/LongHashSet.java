@@ -0,0 +1,119 @@
+package com.sofka.bingo.utility;
+
+/**
+ * Conjunto de valores {@code long} con direccionamiento abierto, sin objetos por elemento.
+ * Se usa para guardar huellas de tableros de forma compacta; agregar y consultar son O(1).
+ * No es seguro para hilos: quien lo usa debe sincronizar el acceso.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public class LongHashSet {
+
+    /**
+     * Valor que marca una posición vacía de la tabla.
+     */
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+
+    private int size;
+
+    private boolean containsEmpty;
+
+    /**
+     * Crea un conjunto con espacio para la cantidad de elementos indicada sin crecer.
+     * @param expectedSize la cantidad de elementos esperada
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        table = new long[capacity];
+    }
+
+    /**
+     * Agrega un valor al conjunto.
+     * @param value el valor a agregar
+     * @return verdadero si el valor no estaba en el conjunto
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        if (++size * 2 > table.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Indica si un valor está en el conjunto.
+     * @param value el valor a buscar
+     * @return verdadero si el valor está en el conjunto
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Retorna la cantidad de valores del conjunto.
+     * @return la cantidad de valores
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Duplica la tabla y vuelve a ubicar los valores.
+     */
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        int mask = table.length - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int index = mix(value) & mask;
+                while (table[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+    /**
+     * Mezcla los bits de un valor para repartirlo en la tabla.
+     * @param value el valor
+     * @return el valor mezclado
+     */
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
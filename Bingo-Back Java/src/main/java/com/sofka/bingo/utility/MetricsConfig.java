@@ -0,0 +1,60 @@
+package com.sofka.bingo.utility;
+
+import com.sofka.bingo.service.BoardPoolService;
+import com.sofka.bingo.service.GameEventStreamService;
+import com.sofka.bingo.service.GameLoopService;
+import com.sofka.bingo.service.GameStateService;
+import com.sofka.bingo.service.MatchmakingService;
+import com.sofka.bingo.service.PresenceService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de los indicadores del dominio que se exponen en "/actuator/prometheus": juegos activos,
+ * jugadores sentados y en línea, salas abiertas, tableros en reserva y conexiones Server-Sent Events.
+ * Las balotas y reclamaciones por segundo se obtienen de los contadores de {@code GameMetricsService}.
+ * Los indicadores se leen de los servicios solo cuando se consultan las métricas.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Crea los indicadores del dominio.
+     * @param gameLoopService el servicio de los ciclos de juego
+     * @param gameStateService el servicio del estado en memoria de los juegos
+     * @param presenceService el servicio de los jugadores en línea
+     * @param matchmakingService el servicio del lobby
+     * @param boardPoolService el servicio de la reserva de tableros
+     * @param gameEventStreamService el servicio de las conexiones Server-Sent Events
+     * @return el registrador de los indicadores
+     */
+    @Bean
+    public MeterBinder gameGauges(GameLoopService gameLoopService, GameStateService gameStateService,
+                                  PresenceService presenceService, MatchmakingService matchmakingService,
+                                  BoardPoolService boardPoolService, GameEventStreamService gameEventStreamService) {
+        return registry -> {
+            Gauge.builder("bingo.games.active", gameLoopService, GameLoopService::running)
+                    .description("Juegos con un ciclo activo")
+                    .register(registry);
+            Gauge.builder("bingo.gamers.seated", gameStateService, GameStateService::seatedGamers)
+                    .description("Jugadores de los juegos cargados en memoria")
+                    .register(registry);
+            Gauge.builder("bingo.gamers.online", presenceService, PresenceService::online)
+                    .description("Jugadores en línea")
+                    .register(registry);
+            Gauge.builder("bingo.rooms.open", matchmakingService, MatchmakingService::openRooms)
+                    .description("Salas abiertas del lobby")
+                    .register(registry);
+            Gauge.builder("bingo.board-pool.size", boardPoolService, BoardPoolService::size)
+                    .description("Tableros libres en la reserva")
+                    .register(registry);
+            Gauge.builder("bingo.sse.subscribers", gameEventStreamService, GameEventStreamService::size)
+                    .description("Conexiones Server-Sent Events abiertas")
+                    .register(registry);
+        };
+    }
+}
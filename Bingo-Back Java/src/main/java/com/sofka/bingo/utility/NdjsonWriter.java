@@ -0,0 +1,52 @@
+package com.sofka.bingo.utility;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Clase que escribe objetos en formato NDJSON (un documento JSON por línea) sobre un flujo de salida,
+ * de modo que una respuesta se puede escribir a medida que se leen los registros de la base de datos.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public class NdjsonWriter implements Consumer<Object> {
+
+    /**
+     * Tipo de contenido de las respuestas NDJSON.
+     */
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final byte NEW_LINE = '\n';
+
+    private final ObjectMapper objectMapper;
+
+    private final OutputStream out;
+
+    /**
+     * Construye un escritor NDJSON sobre el flujo dado.
+     * @param objectMapper el mapeador con el que se serializa cada objeto
+     * @param out el flujo de salida de la respuesta
+     */
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+        this.objectMapper = objectMapper;
+        this.out = out;
+    }
+
+    /**
+     * Escribe un objeto como una línea JSON.
+     * @param value el objeto a escribir
+     */
+    @Override
+    public void accept(Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write(NEW_LINE);
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.sofka.bingo.utility;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clase que representa una sala abierta del lobby: un juego en espera con una cantidad máxima de puestos
+ * y un momento de inicio. Los puestos se reservan con una operación compare-and-set sobre un contador,
+ * sin candados; al cerrar la sala el contador queda marcado para que nadie más se pueda sentar.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public class OpenRoom {
+
+    /**
+     * Valor del contador de puestos cuando la sala está cerrada.
+     */
+    private static final int CLOSED = -1;
+
+    private final Long idGame;
+
+    private final int capacity;
+
+    private final long startAt;
+
+    private final AtomicInteger seats = new AtomicInteger();
+
+    /**
+     * Número de puesto de cada jugador sentado en la sala, indexado por ID del jugador.
+     */
+    private final Map<Long, Integer> seatsByGamer = new ConcurrentHashMap<>();
+
+    /**
+     * Construye una sala vacía.
+     * @param idGame el ID del juego de la sala
+     * @param capacity la cantidad máxima de puestos
+     * @param startAt el momento de inicio del juego, en milisegundos desde la época
+     */
+    public OpenRoom(Long idGame, int capacity, long startAt) {
+        this.idGame = idGame;
+        this.capacity = capacity;
+        this.startAt = startAt;
+    }
+
+    /**
+     * Reserva un puesto en la sala si está abierta, tiene puestos libres y aún no llega su momento de inicio.
+     * @return la cantidad de puestos ocupados con la reserva, o 0 si no se pudo reservar
+     */
+    public int tryReserve() {
+        while (true) {
+            int taken = seats.get();
+            if (taken == CLOSED || taken >= capacity || System.currentTimeMillis() >= startAt) {
+                return 0;
+            }
+            if (seats.compareAndSet(taken, taken + 1)) {
+                return taken + 1;
+            }
+        }
+    }
+
+    /**
+     * Libera un puesto reservado, si la sala sigue abierta.
+     */
+    public void release() {
+        seats.getAndUpdate(taken -> taken > 0 ? taken - 1 : taken);
+    }
+
+    /**
+     * Registra el número de puesto que recibió un jugador al sentarse.
+     * @param idGamer el ID del jugador
+     * @param seat el número de puesto del jugador
+     */
+    public void assign(Long idGamer, int seat) {
+        seatsByGamer.put(idGamer, seat);
+    }
+
+    /**
+     * Retorna el número de puesto de un jugador sentado en la sala.
+     * @param idGamer el ID del jugador
+     * @return el número de puesto del jugador, o 0 si no está sentado en la sala
+     */
+    public int seatOf(Long idGamer) {
+        return seatsByGamer.getOrDefault(idGamer, 0);
+    }
+
+    /**
+     * Cierra la sala para que nadie más se pueda sentar.
+     * @return la cantidad de puestos ocupados al cerrar, o -1 si la sala ya estaba cerrada
+     */
+    public int close() {
+        int taken = seats.getAndSet(CLOSED);
+        return taken == CLOSED ? -1 : taken;
+    }
+
+    /**
+     * Indica si la sala está llena.
+     * @param taken la cantidad de puestos ocupados
+     * @return verdadero si ya no quedan puestos libres
+     */
+    public boolean isFull(int taken) {
+        return taken >= capacity;
+    }
+
+    public Long getIdGame() {
+        return idGame;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getStartAt() {
+        return startAt;
+    }
+
+    /**
+     * Retorna la cantidad de puestos ocupados.
+     * @return los puestos ocupados, o 0 si la sala está cerrada
+     */
+    public int getSeats() {
+        return Math.max(0, seats.get());
+    }
+}
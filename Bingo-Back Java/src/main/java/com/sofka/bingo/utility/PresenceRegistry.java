@@ -0,0 +1,317 @@
+package com.sofka.bingo.utility;
+
+import com.sofka.bingo.domain.StatusType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clase que representa el registro en memoria de los jugadores en línea. Cada jugador tiene la marca de su último
+ * latido y vence si no late dentro del tiempo de espera. Los vencimientos se ordenan en una rueda de temporización:
+ * un arreglo de casillas, una por tic, donde cada jugador está en la casilla del tic en que vence; al avanzar la rueda
+ * solo se revisan las casillas de los tics que pasaron, por lo que el costo no depende del total de jugadores.
+ * La rueda tiene más casillas que tics en el tiempo de espera, así que un jugador nunca está a más de una vuelta.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public class PresenceRegistry {
+
+    /**
+     * Datos de un jugador en línea en un momento dado.
+     * @param idGamer el ID del jugador
+     * @param user el nombre de usuario del jugador
+     * @param idGame el ID del juego del jugador, o null si no está en un juego
+     * @param status el estado del jugador
+     * @param lastSeen el momento del último latido, en milisegundos desde la época
+     */
+    public record Presence(Long idGamer, String user, Long idGame, StatusType status, long lastSeen) {
+    }
+
+    private final long timeoutMs;
+
+    private final long tickMs;
+
+    private final Set<Long>[] wheel;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Jugadores en línea de cada juego, indexados por ID del juego.
+     */
+    private final Map<Long, Set<Long>> byGame = new ConcurrentHashMap<>();
+
+    /**
+     * Próximo tic de la rueda por revisar, o -1 si la rueda aún no avanza.
+     */
+    private long nextTick = -1;
+
+    /**
+     * Construye un registro vacío.
+     * @param timeoutMs el tiempo sin latidos tras el cual un jugador vence, en milisegundos
+     * @param tickMs la duración de cada casilla de la rueda, en milisegundos
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PresenceRegistry(long timeoutMs, long tickMs) {
+        this.timeoutMs = timeoutMs;
+        this.tickMs = tickMs;
+        this.wheel = new Set[(int) (timeoutMs / tickMs) + 2];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    /**
+     * Registra un jugador en línea, o actualiza su juego y su estado si ya estaba, y cuenta como un latido.
+     * @param idGamer el ID del jugador
+     * @param user el nombre de usuario del jugador
+     * @param idGame el ID del juego del jugador, o null si no está en un juego
+     * @param status el estado del jugador
+     * @param now el momento actual, en milisegundos desde la época
+     * @return verdadero si el estado del jugador cambió o el jugador no estaba en línea
+     */
+    public boolean connect(Long idGamer, String user, Long idGame, StatusType status, long now) {
+        while (true) {
+            Entry entry = entries.computeIfAbsent(idGamer, id -> new Entry(id, user));
+            synchronized (entry) {
+                if (entry.removed) {
+                    continue;
+                }
+                boolean changed = entry.status != status;
+                entry.status = status;
+                moveGame(entry, idGame);
+                touch(entry, now);
+                return changed;
+            }
+        }
+    }
+
+    /**
+     * Registra un latido de un jugador en línea.
+     * @param idGamer el ID del jugador
+     * @param now el momento actual, en milisegundos desde la época
+     * @return verdadero si el jugador estaba en línea, falso si no está registrado o ya venció
+     */
+    public boolean heartbeat(Long idGamer, long now) {
+        Entry entry = entries.get(idGamer);
+        if (entry == null) {
+            return false;
+        }
+        synchronized (entry) {
+            if (entry.removed) {
+                return false;
+            }
+            touch(entry, now);
+            return true;
+        }
+    }
+
+    /**
+     * Cambia el juego de un jugador en línea, sin contar como un latido.
+     * @param idGamer el ID del jugador
+     * @param idGame el ID del nuevo juego, o null si sale del juego
+     */
+    public void moveTo(Long idGamer, Long idGame) {
+        Entry entry = entries.get(idGamer);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (!entry.removed) {
+                moveGame(entry, idGame);
+            }
+        }
+    }
+
+    /**
+     * Saca a un jugador del registro.
+     * @param idGamer el ID del jugador
+     * @return los datos del jugador, o null si no estaba en línea
+     */
+    public Presence disconnect(Long idGamer) {
+        Entry entry = entries.get(idGamer);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            if (entry.removed) {
+                return null;
+            }
+            Presence presence = entry.snapshot();
+            remove(entry);
+            return presence;
+        }
+    }
+
+    /**
+     * Avanza la rueda hasta el momento dado y saca del registro a los jugadores que vencieron.
+     * Solo se revisan los tics que terminaron, de modo que todos los vencimientos de una casilla revisada ya pasaron.
+     * @param now el momento actual, en milisegundos desde la época
+     * @return los datos de los jugadores que vencieron
+     */
+    public synchronized List<Presence> expire(long now) {
+        long lastTick = now / tickMs - 1;
+        if (nextTick < 0 || lastTick - nextTick >= wheel.length) {
+            nextTick = Math.max(0, lastTick - wheel.length + 1);
+        }
+        List<Presence> expired = new ArrayList<>();
+        for (; nextTick <= lastTick; nextTick++) {
+            Set<Long> slot = wheel[slotOf(nextTick)];
+            for (Long idGamer : slot) {
+                Entry entry = entries.get(idGamer);
+                if (entry == null) {
+                    slot.remove(idGamer);
+                    continue;
+                }
+                synchronized (entry) {
+                    if (!entry.removed && entry.lastSeen + timeoutMs <= now) {
+                        expired.add(entry.snapshot());
+                        remove(entry);
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Retorna los jugadores en línea de un juego.
+     * @param idGame el ID del juego
+     * @return los datos de los jugadores en línea del juego
+     */
+    public List<Presence> roster(Long idGame) {
+        Set<Long> ids = byGame.get(idGame);
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        List<Presence> roster = new ArrayList<>(ids.size());
+        for (Long idGamer : ids) {
+            Entry entry = entries.get(idGamer);
+            if (entry != null) {
+                synchronized (entry) {
+                    if (!entry.removed && idGame.equals(entry.idGame)) {
+                        roster.add(entry.snapshot());
+                    }
+                }
+            }
+        }
+        return roster;
+    }
+
+    /**
+     * Retorna los datos de un jugador en línea.
+     * @param idGamer el ID del jugador
+     * @return los datos del jugador, o null si no está en línea
+     */
+    public Presence get(Long idGamer) {
+        Entry entry = entries.get(idGamer);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            return entry.removed ? null : entry.snapshot();
+        }
+    }
+
+    /**
+     * Retorna la cantidad de jugadores en línea.
+     * @return la cantidad de jugadores
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Registra un latido: mueve al jugador a la casilla del tic en que vence. Se llama con el candado del jugador.
+     * @param entry el jugador
+     * @param now el momento actual, en milisegundos desde la época
+     */
+    private void touch(Entry entry, long now) {
+        entry.lastSeen = now;
+        int slot = slotOf((now + timeoutMs) / tickMs);
+        if (slot != entry.slot) {
+            if (entry.slot >= 0) {
+                wheel[entry.slot].remove(entry.idGamer);
+            }
+            wheel[slot].add(entry.idGamer);
+            entry.slot = slot;
+        }
+    }
+
+    /**
+     * Cambia el juego de un jugador en el índice por juego. Se llama con el candado del jugador.
+     * @param entry el jugador
+     * @param idGame el ID del nuevo juego, o null
+     */
+    private void moveGame(Entry entry, Long idGame) {
+        if (entry.idGame != null && !entry.idGame.equals(idGame)) {
+            leaveGame(entry);
+        }
+        entry.idGame = idGame;
+        if (idGame != null) {
+            byGame.compute(idGame, (id, ids) -> {
+                Set<Long> roster = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                roster.add(entry.idGamer);
+                return roster;
+            });
+        }
+    }
+
+    /**
+     * Saca a un jugador del registro, de su casilla y de su juego. Se llama con el candado del jugador.
+     * @param entry el jugador
+     */
+    private void remove(Entry entry) {
+        entry.removed = true;
+        entries.remove(entry.idGamer, entry);
+        if (entry.slot >= 0) {
+            wheel[entry.slot].remove(entry.idGamer);
+        }
+        if (entry.idGame != null) {
+            leaveGame(entry);
+        }
+    }
+
+    private void leaveGame(Entry entry) {
+        byGame.computeIfPresent(entry.idGame, (id, ids) -> {
+            ids.remove(entry.idGamer);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.length);
+    }
+
+    /**
+     * Jugador en línea. Sus campos se modifican siempre con el candado del jugador.
+     */
+    private static class Entry {
+
+        private final Long idGamer;
+
+        private final String user;
+
+        private Long idGame;
+
+        private StatusType status;
+
+        private long lastSeen;
+
+        private int slot = -1;
+
+        private boolean removed;
+
+        private Entry(Long idGamer, String user) {
+            this.idGamer = idGamer;
+            this.user = user;
+        }
+
+        private Presence snapshot() {
+            return new Presence(idGamer, user, idGame, status, lastSeen);
+        }
+    }
+}
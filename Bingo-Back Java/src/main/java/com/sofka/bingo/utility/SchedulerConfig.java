@@ -0,0 +1,82 @@
+package com.sofka.bingo.utility;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuración del ejecutor compartido que mueve los ciclos de todos los juegos.
+ * Un mismo grupo pequeño de hilos atiende el conteo, las balotas y las pausas de miles de salas.
+ * Las conexiones Server-Sent Events tienen su propio ejecutor, para que un cliente lento no frene los juegos.
+ * El llenado de la reserva de tableros y las escrituras periódicas a disco y a la base de datos también tienen
+ * sus propios ejecutores, para que una inserción o una escritura lenta no retrase las balotas.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Configuration
+public class SchedulerConfig {
+
+    /**
+     * Crea el ejecutor programado de los ciclos de juego.
+     * @param threads la cantidad de hilos del ejecutor
+     * @return el ejecutor programado
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService gameScheduler(@Value("${bingo.game-loop.threads:4}") int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-loop-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Crea el ejecutor programado que llena la reserva de tableros. Un solo hilo basta porque solo corre un llenado a la vez.
+     * @return el ejecutor programado
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService boardPoolScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "board-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Crea el ejecutor programado de las escrituras periódicas: la bajada a disco del diario
+     * y la escritura por lotes de los estados de presencia.
+     * @param threads la cantidad de hilos del ejecutor
+     * @return el ejecutor programado
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService flushScheduler(@Value("${bingo.flush.threads:2}") int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "flush-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Crea el ejecutor que envía los eventos en cola de las conexiones Server-Sent Events.
+     * @param threads la cantidad de hilos del ejecutor
+     * @return el ejecutor
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService sseExecutor(@Value("${bingo.sse.threads:4}") int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
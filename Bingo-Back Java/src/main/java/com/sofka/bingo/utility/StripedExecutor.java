@@ -0,0 +1,112 @@
+package com.sofka.bingo.utility;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Clase que reparte tareas entre varios ejecutores de un solo hilo según una llave.
+ * Todas las tareas de una misma llave corren en el mismo hilo y en el orden en que llegan,
+ * de modo que cada llave tiene un único escritor sin necesidad de candados; llaves distintas
+ * se reparten entre los hilos y avanzan en paralelo.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public class StripedExecutor {
+
+    /**
+     * Índice del ejecutor al que pertenece el hilo actual, o null si no es un hilo de este ejecutor.
+     */
+    private final ThreadLocal<Integer> currentStripe = new ThreadLocal<>();
+
+    private final ExecutorService[] stripes;
+
+    /**
+     * Construye el ejecutor con la cantidad de hilos dada.
+     * @param count la cantidad de hilos
+     * @param name el prefijo del nombre de los hilos
+     */
+    public StripedExecutor(int count, String name) {
+        this.stripes = new ExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            stripes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(() -> {
+                    currentStripe.set(index);
+                    runnable.run();
+                }, name + "-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Ejecuta una tarea en el hilo de su llave y espera su resultado.
+     * Si el hilo actual ya es el de la llave, la tarea se ejecuta de inmediato para no bloquearse a sí mismo.
+     * @param key la llave de la tarea
+     * @param task la tarea
+     * @param <T> el tipo del resultado
+     * @return el resultado de la tarea
+     * @throws RuntimeException la misma excepción que lanzó la tarea
+     */
+    public <T> T call(long key, Callable<T> task) {
+        int stripe = stripeOf(key);
+        try {
+            if (Integer.valueOf(stripe).equals(currentStripe.get())) {
+                return task.call();
+            }
+            Future<T> future = stripes[stripe].submit(task);
+            return future.get();
+        } catch (ExecutionException exc) {
+            throw propagate(exc.getCause());
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exc);
+        } catch (Exception exc) {
+            throw propagate(exc);
+        }
+    }
+
+    /**
+     * Encola una tarea en el hilo de su llave sin esperar a que termine.
+     * @param key la llave de la tarea
+     * @param task la tarea
+     */
+    public void execute(long key, Runnable task) {
+        stripes[stripeOf(key)].execute(task);
+    }
+
+    /**
+     * Detiene los hilos del ejecutor.
+     */
+    public void shutdown() {
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdownNow();
+        }
+    }
+
+    /**
+     * Retorna la cantidad de hilos del ejecutor.
+     * @return la cantidad de hilos
+     */
+    public int size() {
+        return stripes.length;
+    }
+
+    private int stripeOf(long key) {
+        return Math.floorMod(Long.hashCode(key), stripes.length);
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,39 @@
+package com.sofka.bingo.utility;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * Configuración de WebSocket con STOMP para transmitir los eventos de los juegos.
+ * Cada juego tiene su propio tópico {@code /topic/game/{id}}; una misma conexión puede
+ * suscribirse a los tópicos de varias salas.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    /**
+     * Registra el punto de conexión STOMP de la aplicación.
+     * @param registry el registro de puntos de conexión
+     */
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws")
+                .setAllowedOrigins("http://localhost:3000");
+    }
+
+    /**
+     * Configura el broker en memoria que reparte los mensajes de los tópicos.
+     * @param registry el registro del broker de mensajes
+     */
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+}
@@ -0,0 +1,155 @@
+package com.sofka.bingo.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase que detecta los ganadores de un juego a medida que salen las balotas.
+ * Mantiene un índice invertido de cada número hacia las casillas (tablero, posición) que lo contienen,
+ * y un contador de aciertos por línea de cada tablero, de modo que cada balota solo actualiza
+ * los tableros que tienen ese número.
+ * @version 1.0.000 2023-04-15
+ * @author Wendy Arcila
+ */
+public class WinnerIndex {
+
+    /**
+     * Cantidad de bits que ocupa la posición de la casilla dentro de una entrada del índice.
+     */
+    private static final int CELL_BITS = 5;
+
+    /**
+     * Entradas (tablero, casilla) de cada número, codificadas como {@code tablero << 5 | casilla}.
+     */
+    private final int[][] postings = new int[BallDeck.BALLS + 1][];
+
+    /**
+     * Cantidad de entradas usadas de cada número.
+     */
+    private final int[] postingSizes = new int[BallDeck.BALLS + 1];
+
+    /**
+     * Aciertos de cada línea de cada tablero, en la posición {@code tablero * 12 + línea}.
+     */
+    private byte[] lineHits = new byte[0];
+
+    /**
+     * Usuario dueño de cada tablero registrado.
+     */
+    private final List<String> users = new ArrayList<>();
+
+    /**
+     * Posición de cada tablero registrado, indexada por ID del tablero.
+     */
+    private final Map<Long, Integer> slots = new HashMap<>();
+
+    /**
+     * Tableros que ya completaron una línea.
+     */
+    private final BitSet won = new BitSet();
+
+    /**
+     * Balotas que ya salieron.
+     */
+    private final BitSet drawn = new BitSet(BallDeck.BALLS + 1);
+
+    /**
+     * Ganadores en el orden en que completaron su línea.
+     */
+    private final List<String> winners = new ArrayList<>();
+
+    /**
+     * Registra el tablero de un jugador y le aplica las balotas que ya salieron.
+     * @param idBoard el ID del tablero
+     * @param user el nombre de usuario del dueño del tablero
+     * @param cells los números del tablero en orden de filas
+     * @return los usuarios que ganaron al registrar el tablero (vacío o el propio usuario)
+     */
+    public synchronized List<String> addBoard(Long idBoard, String user, int[] cells) {
+        if (slots.containsKey(idBoard)) {
+            return Collections.emptyList();
+        }
+        int slot = users.size();
+        slots.put(idBoard, slot);
+        users.add(user);
+        if (lineHits.length < (slot + 1) * BoardMask.lineCount()) {
+            lineHits = Arrays.copyOf(lineHits, Math.max(BoardMask.lineCount(), lineHits.length * 2));
+        }
+        List<String> newWinners = new ArrayList<>(1);
+        for (int cell = 0; cell < BoardMask.CELLS; cell++) {
+            int number = cells[cell];
+            if (number < 1 || number > BallDeck.BALLS) {
+                continue;
+            }
+            addPosting(number, slot << CELL_BITS | cell);
+            if (drawn.get(number)) {
+                hit(slot, cell, newWinners);
+            }
+        }
+        return newWinners;
+    }
+
+    /**
+     * Aplica una balota sacada a los tableros que contienen su número.
+     * @param number el número de la balota
+     * @return los usuarios que completaron una línea con esta balota, en orden
+     */
+    public synchronized List<String> onDraw(int number) {
+        if (number < 1 || number > BallDeck.BALLS || drawn.get(number)) {
+            return Collections.emptyList();
+        }
+        drawn.set(number);
+        List<String> newWinners = new ArrayList<>(1);
+        int[] entries = postings[number];
+        for (int i = 0; i < postingSizes[number]; i++) {
+            hit(entries[i] >>> CELL_BITS, entries[i] & ((1 << CELL_BITS) - 1), newWinners);
+        }
+        return newWinners;
+    }
+
+    /**
+     * Retorna los ganadores detectados en el orden en que completaron su línea.
+     * @return una copia de la lista de ganadores
+     */
+    public synchronized List<String> getWinners() {
+        return new ArrayList<>(winners);
+    }
+
+    /**
+     * Suma un acierto a las líneas de la casilla y registra al tablero como ganador si completa alguna.
+     * @param slot la posición del tablero
+     * @param cell la posición de la casilla
+     * @param newWinners la lista donde se agregan los nuevos ganadores
+     */
+    private void hit(int slot, int cell, List<String> newWinners) {
+        int base = slot * BoardMask.lineCount();
+        for (int line : BoardMask.linesOf(cell)) {
+            if (++lineHits[base + line] == BoardMask.SIZE && !won.get(slot)) {
+                won.set(slot);
+                winners.add(users.get(slot));
+                newWinners.add(users.get(slot));
+            }
+        }
+    }
+
+    /**
+     * Agrega una entrada al índice de un número.
+     * @param number el número
+     * @param entry la entrada codificada (tablero, casilla)
+     */
+    private void addPosting(int number, int entry) {
+        int[] entries = postings[number];
+        if (entries == null) {
+            entries = new int[4];
+        } else if (postingSizes[number] == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[postingSizes[number]++] = entry;
+        postings[number] = entries;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sofka.bingo;
+
+import com.sofka.bingo.domain.Game;
+import com.sofka.bingo.domain.Move;
+import com.sofka.bingo.domain.StatusType;
+import com.sofka.bingo.repository.MoveRepository;
+import com.sofka.bingo.service.GameService;
+import com.sofka.bingo.service.StatusRegistry;
+import com.sofka.bingo.utility.CreateMove;
+import com.sofka.bingo.utility.DrawJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara el costo de escribir una balota en el diario contra guardarla con {@link MoveRepository#save}.
+ * Se ejecuta solo con {@code -Dbingo.benchmark=true}, ya que necesita la base de datos.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "bingo.benchmark", matches = "true")
+class DrawJournalBenchmarkTests {
+
+    private static final int DRAWS = 2000;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private StatusRegistry statusRegistry;
+
+    @Autowired
+    private MoveRepository moveRepository;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void journalAgainstMoveRepository() throws IOException {
+        Game game = gameService.postGame(new Game(), statusRegistry.get(StatusType.GAME_WAITING));
+        CreateMove createMove = new CreateMove();
+        List<Move> saved = new ArrayList<>(DRAWS);
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < DRAWS; i++) {
+                int number = i % 75 + 1;
+                Move move = new Move();
+                move.setGame(game);
+                move.setNumber(number);
+                move.setLetter(createMove.letter(number));
+                saved.add(moveRepository.save(move));
+            }
+            long repositoryNanos = System.nanoTime() - start;
+
+            long journalNanos;
+            try (DrawJournal journal = new DrawJournal(dir.resolve("journal.bin"), 16 * 1024 * 1024)) {
+                start = System.nanoTime();
+                for (int i = 0; i < DRAWS; i++) {
+                    journal.append(DrawJournal.Type.DRAW, game.getIdGame(), i % 75 + 1, null);
+                }
+                journal.force();
+                journalNanos = System.nanoTime() - start;
+            }
+
+            System.out.printf("MoveRepository.save: %d balotas en %d ms (%.1f us/balota)%n",
+                    DRAWS, repositoryNanos / 1_000_000, repositoryNanos / 1_000.0 / DRAWS);
+            System.out.printf("DrawJournal.append:  %d balotas en %d ms (%.1f us/balota)%n",
+                    DRAWS, journalNanos / 1_000_000, journalNanos / 1_000.0 / DRAWS);
+        } finally {
+            moveRepository.deleteAll(saved);
+            gameService.deleteGame(game.getIdGame());
+        }
+    }
+}
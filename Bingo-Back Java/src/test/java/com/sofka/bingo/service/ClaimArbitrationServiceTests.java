@@ -0,0 +1,102 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.utility.ClaimArbiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaimArbitrationServiceTests {
+
+    private final List<String> steps = new CopyOnWriteArrayList<>();
+
+    private final List<List<String>> announced = new CopyOnWriteArrayList<>();
+
+    private final List<List<String>> settled = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    private ClaimArbitrationService service;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        service = new ClaimArbitrationService();
+        ReflectionTestUtils.setField(service, "gameService", new GameService() {
+            @Override
+            public List<String> settleWinners(Long id, List<String> winners) {
+                steps.add("settle");
+                settled.add(winners);
+                return winners;
+            }
+        });
+        ReflectionTestUtils.setField(service, "gameLoopService", new GameLoopService() {
+            @Override
+            public void stopForWinners(Long idGame) {
+                steps.add("stop");
+            }
+
+            @Override
+            public void announceWinners(Long idGame, List<String> winners) {
+                steps.add("announce");
+                announced.add(winners);
+            }
+        });
+        ReflectionTestUtils.setField(service, "gameMetricsService", new GameMetricsService() {
+            @Override
+            public void recordClaim(ClaimResult result) {
+            }
+        });
+        ReflectionTestUtils.setField(service, "gameScheduler", scheduler);
+        ReflectionTestUtils.setField(service, "tieWindowMs", 50L);
+        ReflectionTestUtils.setField(service, "retentionMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void detectedWinnersAreSettledLikeClaims() throws Exception {
+        service.claimDetected(1L, List.of("ana", "eva"));
+
+        assertEquals(List.of("ana", "eva"), service.settled(1L).get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("stop", "settle", "announce"), steps);
+        assertEquals(List.of(List.of("ana", "eva")), settled);
+        assertEquals(List.of(List.of("ana", "eva")), announced);
+        assertTrue(service.isWinner(1L, "eva"));
+        assertFalse(service.isWinner(1L, "luis"));
+    }
+
+    @Test
+    void claimInsideTheTieWindowJoinsTheDetectedWinners() throws Exception {
+        service.claimDetected(1L, List.of("ana"));
+
+        assertEquals(ClaimArbiter.Outcome.TIED, service.claim(1L, "luis"));
+        assertEquals(List.of("ana", "luis"), service.settled(1L).get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of("ana", "luis")), settled);
+    }
+
+    @Test
+    void winnersAreSettledOnceAndLaterClaimsLose() throws Exception {
+        service.claimDetected(1L, List.of("ana"));
+        service.settled(1L).get(5, TimeUnit.SECONDS);
+
+        service.claimDetected(1L, List.of("ana"));
+        assertEquals(ClaimArbiter.Outcome.WON, service.claim(1L, "ana"));
+        assertEquals(ClaimArbiter.Outcome.LATE, service.claim(1L, "luis"));
+        assertEquals(1, settled.size());
+        assertEquals(1, announced.size());
+    }
+}
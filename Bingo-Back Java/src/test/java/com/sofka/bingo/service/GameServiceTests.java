@@ -0,0 +1,154 @@
+package com.sofka.bingo.service;
+
+import com.sofka.bingo.domain.FinishedGame;
+import com.sofka.bingo.domain.GameSummary;
+import com.sofka.bingo.domain.StatusType;
+import com.sofka.bingo.repository.GameRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.annotations.Where;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameServiceTests {
+
+    private final Map<Long, GameSummary> rows = new HashMap<>();
+
+    private final Map<Long, FinishedGame> region = new HashMap<>();
+
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private GameService service;
+
+    @BeforeEach
+    void setUp() {
+        Cache cache = fake(Cache.class, (name, args) -> switch (name) {
+            case "contains" -> region.containsKey((Long) args[1]);
+            case "evict" -> region.remove((Long) args[1]);
+            default -> throw new UnsupportedOperationException(name);
+        });
+        EntityManagerFactory factory = fake(EntityManagerFactory.class, (name, args) -> {
+            if (name.equals("getCache")) {
+                return cache;
+            }
+            throw new UnsupportedOperationException(name);
+        });
+        EntityManager entityManager = fake(EntityManager.class, (name, args) -> switch (name) {
+            case "getEntityManagerFactory" -> factory;
+            case "find" -> find((Long) args[1]);
+            default -> throw new UnsupportedOperationException(name);
+        });
+        GameRepository gameRepository = fake(GameRepository.class, (name, args) -> switch (name) {
+            case "findSummary" -> {
+                queries.incrementAndGet();
+                yield Optional.ofNullable(rows.get((Long) args[0]));
+            }
+            case "deleteById" -> rows.remove((Long) args[0]);
+            default -> throw new UnsupportedOperationException(name);
+        });
+        service = new GameService();
+        ReflectionTestUtils.setField(service, "gameStateService", new GameStateService());
+        ReflectionTestUtils.setField(service, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+    }
+
+    @Test
+    void finishedGameIsQueriedOnceAndThenReadFromTheRegion() {
+        rows.put(1L, summary(1L, StatusType.GAME_FINISHED));
+
+        GameSummary first = service.findGameSummary(1L).get();
+        GameSummary second = service.findGameSummary(1L).get();
+
+        assertEquals(1, queries.get());
+        assertEquals(1, misses.get());
+        assertEquals(1, hits.get());
+        assertTrue(region.containsKey(1L));
+        assertEquals(first, second);
+    }
+
+    @Test
+    void activeGameIsNotPutInTheRegion() {
+        rows.put(2L, summary(2L, StatusType.GAME_IN_PROGRESS));
+
+        service.findGameSummary(2L);
+        service.findGameSummary(2L);
+
+        assertEquals(2, queries.get());
+        assertEquals(0, misses.get());
+        assertEquals(0, hits.get());
+        assertFalse(region.containsKey(2L));
+    }
+
+    @Test
+    void deletedGameLeavesTheRegion() {
+        rows.put(3L, summary(3L, StatusType.GAME_FINISHED));
+        service.findGameSummary(3L);
+
+        service.deleteGame(3L);
+
+        assertFalse(region.containsKey(3L));
+        assertTrue(service.findGameSummary(3L).isEmpty());
+        assertEquals(2, queries.get());
+        assertEquals(0, hits.get());
+    }
+
+    @Test
+    void finishedGameFilterMatchesTheFinishedStatus() {
+        Where where = FinishedGame.class.getAnnotation(Where.class);
+
+        assertEquals("statu_id = " + StatusType.GAME_FINISHED.getId(), where.clause());
+    }
+
+    private FinishedGame find(Long idGame) {
+        FinishedGame cached = region.get(idGame);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        GameSummary row = rows.get(idGame);
+        FinishedGame game = new FinishedGame();
+        ReflectionTestUtils.setField(game, "idGame", row.idGame());
+        ReflectionTestUtils.setField(game, "idStatus", row.idStatus());
+        ReflectionTestUtils.setField(game, "statusName", row.statusName());
+        ReflectionTestUtils.setField(game, "winner", row.winner());
+        ReflectionTestUtils.setField(game, "gamers", row.gamers());
+        ReflectionTestUtils.setField(game, "moves", row.moves());
+        ReflectionTestUtils.setField(game, "lastNumber", row.lastNumber());
+        ReflectionTestUtils.setField(game, "lastLetter", row.lastLetter());
+        ReflectionTestUtils.setField(game, "updateAt", row.updateAt());
+        region.put(idGame, game);
+        return game;
+    }
+
+    private static GameSummary summary(Long idGame, StatusType status) {
+        return new GameSummary(idGame, status.getId(), status.getStatusName(), "ana", 2L, 10L, 42, "N",
+                Instant.parse("2023-04-15T00:00:00Z"));
+    }
+
+    private interface Handler {
+        Object handle(String name, Object[] args);
+    }
+
+    private static <T> T fake(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.handle(method.getName(), args)));
+    }
+}
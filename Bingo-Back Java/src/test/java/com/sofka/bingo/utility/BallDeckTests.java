@@ -0,0 +1,67 @@
+package com.sofka.bingo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BallDeckTests {
+
+    @Test
+    void drawsEveryBallOnceAndThenRunsEmpty() {
+        BallDeck deck = new BallDeck(42L, List.of());
+        Set<Integer> seen = new HashSet<>();
+
+        for (int i = 1; i <= BallDeck.BALLS; i++) {
+            int ball = deck.next();
+            assertTrue(ball >= 1 && ball <= BallDeck.BALLS);
+            assertTrue(seen.add(ball));
+            assertEquals(i, deck.drawn());
+        }
+
+        assertEquals(0, deck.remaining());
+        assertEquals(BallDeck.EMPTY, deck.next());
+        assertEquals(BallDeck.BALLS, deck.drawn());
+    }
+
+    @Test
+    void sameSeedShufflesTheSameOrder() {
+        BallDeck first = new BallDeck(7L, List.of());
+        BallDeck second = new BallDeck(7L, List.of());
+
+        for (int i = 0; i < BallDeck.BALLS; i++) {
+            assertEquals(first.next(), second.next());
+        }
+    }
+
+    @Test
+    void rebuiltDeckContinuesWithoutRepeatingDrawnBalls() {
+        BallDeck original = new BallDeck(99L, List.of());
+        List<Integer> drawn = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            drawn.add(original.next());
+        }
+
+        BallDeck rebuilt = new BallDeck(99L, drawn);
+
+        assertEquals(20, rebuilt.drawn());
+        assertEquals(BallDeck.BALLS - 20, rebuilt.remaining());
+        for (int i = 20; i < BallDeck.BALLS; i++) {
+            assertEquals(original.next(), rebuilt.next());
+        }
+    }
+
+    @Test
+    void finishesOnlyOnce() {
+        BallDeck deck = new BallDeck(1L, List.of());
+
+        assertTrue(deck.finish());
+        assertFalse(deck.finish());
+    }
+}
@@ -0,0 +1,84 @@
+package com.sofka.bingo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClaimArbiterTests {
+
+    private static final int CLAIMANTS = 500;
+
+    @Test
+    void simultaneousClaimsHaveOneWinnerAndTiesInsideTheWindow() throws Exception {
+        ClaimArbiter arbiter = new ClaimArbiter(250);
+        List<ClaimArbiter.Outcome> outcomes = claimConcurrently(arbiter, 0, 1000L);
+
+        assertEquals(1, outcomes.stream().filter(outcome -> outcome == ClaimArbiter.Outcome.WON).count());
+        assertEquals(CLAIMANTS - 1, outcomes.stream().filter(outcome -> outcome == ClaimArbiter.Outcome.TIED).count());
+        assertEquals(CLAIMANTS, arbiter.getWinners().size());
+        assertEquals(CLAIMANTS, new HashSet<>(arbiter.getWinners()).size());
+    }
+
+    @Test
+    void claimsAfterTheWindowAreLate() throws Exception {
+        ClaimArbiter arbiter = new ClaimArbiter(100);
+        assertEquals(ClaimArbiter.Outcome.WON, arbiter.claim("first", 1000L));
+        List<ClaimArbiter.Outcome> outcomes = claimConcurrently(arbiter, 1, 1101L);
+
+        assertEquals(CLAIMANTS, outcomes.stream().filter(outcome -> outcome == ClaimArbiter.Outcome.LATE).count());
+        assertEquals(List.of("first"), arbiter.getWinners());
+    }
+
+    @Test
+    void claimsAfterCloseAreLate() throws Exception {
+        ClaimArbiter arbiter = new ClaimArbiter(250);
+        assertEquals(ClaimArbiter.Outcome.WON, arbiter.claim("first", 1000L));
+        assertEquals(ClaimArbiter.Outcome.TIED, arbiter.claim("second", 1010L));
+        assertEquals(List.of("first", "second"), arbiter.close());
+        List<ClaimArbiter.Outcome> outcomes = claimConcurrently(arbiter, 2, 1020L);
+
+        assertEquals(CLAIMANTS, outcomes.stream().filter(outcome -> outcome == ClaimArbiter.Outcome.LATE).count());
+        assertEquals(ClaimArbiter.Outcome.TIED, arbiter.claim("second", 1030L));
+    }
+
+    @Test
+    void repeatedClaimsKeepTheirOutcome() {
+        ClaimArbiter arbiter = new ClaimArbiter(250);
+        assertEquals(ClaimArbiter.Outcome.WON, arbiter.claim("first", 1000L));
+        assertEquals(ClaimArbiter.Outcome.WON, arbiter.claim("first", 1001L));
+        assertEquals(ClaimArbiter.Outcome.TIED, arbiter.claim("second", 1002L));
+        assertEquals(ClaimArbiter.Outcome.TIED, arbiter.claim("second", 5000L));
+        assertEquals(List.of("first", "second"), arbiter.getWinners());
+    }
+
+    private static List<ClaimArbiter.Outcome> claimConcurrently(ClaimArbiter arbiter, int round, long now) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<ClaimArbiter.Outcome>> futures = new ArrayList<>(CLAIMANTS);
+            for (int i = 0; i < CLAIMANTS; i++) {
+                String user = "user-" + round + "-" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return arbiter.claim(user, now);
+                }));
+            }
+            start.countDown();
+            List<ClaimArbiter.Outcome> outcomes = new ArrayList<>(CLAIMANTS);
+            for (Future<ClaimArbiter.Outcome> future : futures) {
+                outcomes.add(future.get());
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.sofka.bingo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CreateBoardTests {
+
+    @Test
+    void newCardHasFiveDistinctNumbersPerColumnRange() {
+        int[] card = new CreateBoard().newCard();
+
+        for (int column = 0; column < BoardMask.SIZE; column++) {
+            Set<Integer> numbers = new HashSet<>();
+            for (int row = 0; row < BoardMask.SIZE; row++) {
+                int number = card[row * BoardMask.SIZE + column];
+                assertTrue(number > column * 15 && number <= (column + 1) * 15);
+                numbers.add(number);
+            }
+            assertEquals(BoardMask.SIZE, numbers.size());
+        }
+    }
+
+    @Test
+    void uniqueCardRegeneratesWhenTheFingerprintIsTaken() {
+        int[] taken = new CreateBoard().newCard();
+        LongHashSet fingerprints = new LongHashSet(16);
+        fingerprints.add(BoardMask.fingerprint(taken));
+        int[] calls = new int[1];
+        CreateBoard createBoard = new CreateBoard() {
+            @Override
+            public int[] newCard() {
+                return calls[0]++ == 0 ? taken.clone() : super.newCard();
+            }
+        };
+
+        int[] card = createBoard.newUniqueCard(fingerprints);
+
+        assertEquals(2, calls[0]);
+        assertFalse(Arrays.equals(taken, card));
+        assertTrue(fingerprints.contains(BoardMask.fingerprint(card)));
+        assertEquals(2, fingerprints.size());
+    }
+}
@@ -0,0 +1,96 @@
+package com.sofka.bingo.utility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DrawJournalTests {
+
+    private static final int CAPACITY = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysOnlyOpenGamesAfterReopen() throws IOException {
+        Path path = dir.resolve("journal.bin");
+        try (DrawJournal journal = new DrawJournal(path, CAPACITY)) {
+            journal.append(DrawJournal.Type.DRAW, 1L, 7, null);
+            journal.append(DrawJournal.Type.DRAW, 2L, 30, null);
+            journal.append(DrawJournal.Type.STATUS, 1L, 3, null);
+            journal.append(DrawJournal.Type.CLAIM, 1L, 0, "wendy");
+            journal.append(DrawJournal.Type.CLOSED, 2L, 0, null);
+        }
+        try (DrawJournal journal = new DrawJournal(path, CAPACITY)) {
+            List<DrawJournal.Entry> entries = journal.replay();
+            assertEquals(3, entries.size());
+            assertEquals(DrawJournal.Type.DRAW, entries.get(0).type());
+            assertEquals(7, entries.get(0).value());
+            assertEquals(3, entries.get(1).value());
+            assertEquals("wendy", entries.get(2).text());
+            assertEquals(Set.of(1L), journal.getOpenGames());
+        }
+    }
+
+    @Test
+    void dropsTornRecordAndKeepsAppending() throws IOException {
+        Path path = dir.resolve("journal.bin");
+        int end;
+        try (DrawJournal journal = new DrawJournal(path, CAPACITY)) {
+            journal.append(DrawJournal.Type.DRAW, 1L, 7, null);
+            end = journal.size();
+            journal.append(DrawJournal.Type.DRAW, 1L, 8, null);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), end + Integer.BYTES + 1);
+        }
+        try (DrawJournal journal = new DrawJournal(path, CAPACITY)) {
+            assertEquals(end, journal.size());
+            journal.append(DrawJournal.Type.DRAW, 1L, 9, null);
+            List<DrawJournal.Entry> entries = journal.replay();
+            assertEquals(2, entries.size());
+            assertEquals(9, entries.get(1).value());
+        }
+    }
+
+    @Test
+    void restartsWhenEveryGameIsClosed() throws IOException {
+        try (DrawJournal journal = new DrawJournal(dir.resolve("journal.bin"), CAPACITY)) {
+            journal.append(DrawJournal.Type.DRAW, 1L, 7, null);
+            journal.append(DrawJournal.Type.CLOSED, 1L, 0, null);
+            assertEquals(0, journal.size());
+            assertTrue(journal.replay().isEmpty());
+        }
+    }
+
+    @Test
+    void compactsClosedGamesWhenFull() throws IOException {
+        Path path = dir.resolve("journal.bin");
+        try (DrawJournal journal = new DrawJournal(path, 512)) {
+            journal.append(DrawJournal.Type.DRAW, 2L, 1, null);
+            for (int number = 1; number <= 12; number++) {
+                journal.append(DrawJournal.Type.DRAW, 1L, number, null);
+            }
+            journal.append(DrawJournal.Type.CLOSED, 1L, 0, null);
+            for (int number = 2; number <= 6; number++) {
+                journal.append(DrawJournal.Type.DRAW, 2L, number, null);
+            }
+            List<DrawJournal.Entry> entries = journal.replay();
+            assertEquals(6, entries.size());
+            assertTrue(entries.stream().allMatch(entry -> entry.idGame() == 2L));
+        }
+        try (DrawJournal journal = new DrawJournal(path, 512)) {
+            assertEquals(6, journal.replay().size());
+        }
+    }
+}
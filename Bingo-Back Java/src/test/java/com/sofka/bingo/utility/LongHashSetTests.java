@@ -0,0 +1,52 @@
+package com.sofka.bingo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashSetTests {
+
+    @Test
+    void addReportsWhetherTheValueWasNew() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertTrue(set.add(42L));
+        assertFalse(set.add(42L));
+        assertTrue(set.contains(42L));
+        assertFalse(set.contains(43L));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void zeroAndNegativeValuesAreStored() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertFalse(set.contains(0L));
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+        assertTrue(set.add(-1L));
+        assertTrue(set.add(Long.MIN_VALUE));
+
+        assertTrue(set.contains(0L));
+        assertTrue(set.contains(-1L));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void growsPastItsExpectedSizeWithoutLosingValues() {
+        LongHashSet set = new LongHashSet(1);
+        for (long value = 1; value <= 10_000; value++) {
+            assertTrue(set.add(value * 0x9E3779B97F4A7C15L));
+        }
+
+        assertEquals(10_000, set.size());
+        for (long value = 1; value <= 10_000; value++) {
+            assertTrue(set.contains(value * 0x9E3779B97F4A7C15L));
+            assertFalse(set.add(value * 0x9E3779B97F4A7C15L));
+        }
+        assertFalse(set.contains(10_001 * 0x9E3779B97F4A7C15L));
+    }
+}
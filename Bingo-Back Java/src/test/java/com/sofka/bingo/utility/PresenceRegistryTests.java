@@ -0,0 +1,57 @@
+package com.sofka.bingo.utility;
+
+import com.sofka.bingo.domain.StatusType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PresenceRegistryTests {
+
+    @Test
+    void onlyStatusChangesAreTransitions() {
+        PresenceRegistry registry = new PresenceRegistry(30_000, 1_000);
+
+        assertTrue(registry.connect(1L, "ana", 10L, StatusType.GAMER_WAITING, 0));
+        assertFalse(registry.connect(1L, "ana", 10L, StatusType.GAMER_WAITING, 500));
+        assertTrue(registry.connect(1L, "ana", 10L, StatusType.GAMER_CONNECTED, 1_000));
+    }
+
+    @Test
+    void gamersWithoutHeartbeatExpireAfterTheTimeout() {
+        PresenceRegistry registry = new PresenceRegistry(30_000, 1_000);
+        registry.connect(1L, "ana", 10L, StatusType.GAMER_WAITING, 0);
+        registry.connect(2L, "luis", 10L, StatusType.GAMER_WAITING, 0);
+
+        assertTrue(registry.expire(10_000).isEmpty());
+        assertTrue(registry.heartbeat(2L, 20_000));
+        assertTrue(registry.expire(29_000).isEmpty());
+
+        List<PresenceRegistry.Presence> expired = registry.expire(32_000);
+        assertEquals(1, expired.size());
+        assertEquals("ana", expired.get(0).user());
+        assertFalse(registry.heartbeat(1L, 32_000));
+        assertNull(registry.get(1L));
+
+        assertEquals(1, registry.expire(52_000).size());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void rosterFollowsTheGameOfEachGamer() {
+        PresenceRegistry registry = new PresenceRegistry(30_000, 1_000);
+        registry.connect(1L, "ana", 10L, StatusType.GAMER_WAITING, 0);
+        registry.connect(2L, "luis", 10L, StatusType.GAMER_WAITING, 0);
+        registry.moveTo(2L, 20L);
+
+        assertEquals(List.of("ana"), registry.roster(10L).stream().map(PresenceRegistry.Presence::user).toList());
+        assertEquals(List.of("luis"), registry.roster(20L).stream().map(PresenceRegistry.Presence::user).toList());
+
+        registry.disconnect(1L);
+        assertTrue(registry.roster(10L).isEmpty());
+    }
+}
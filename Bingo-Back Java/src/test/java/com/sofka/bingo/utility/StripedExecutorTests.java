@@ -0,0 +1,72 @@
+package com.sofka.bingo.utility;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedExecutorTests {
+
+    private final StripedExecutor executor = new StripedExecutor(4, "test");
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void tasksOfTheSameKeyRunInOrderOnOneThread() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        List<String> threads = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        for (int i = 0; i < 1_000; i++) {
+            int value = i;
+            executor.execute(7L, () -> {
+                order.add(value);
+                threads.add(Thread.currentThread().getName());
+            });
+        }
+        executor.execute(7L, done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1_000, order.size());
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(i, (long) order.get(i));
+        }
+        assertEquals(1, threads.stream().distinct().count());
+    }
+
+    @Test
+    void nestedCallOnTheSameStripeRunsInlineWithoutDeadlock() {
+        String outer = executor.call(3L, () -> {
+            String caller = Thread.currentThread().getName();
+            String inner = executor.call(3L + executor.size(), () -> Thread.currentThread().getName());
+            return caller.equals(inner) ? inner : null;
+        });
+
+        assertTrue(outer != null && outer.startsWith("test-"));
+    }
+
+    @Test
+    void callRethrowsTheTaskException() {
+        IllegalArgumentException thrown = new IllegalArgumentException("tablero");
+
+        assertSame(thrown, assertThrows(IllegalArgumentException.class, () -> executor.call(1L, () -> {
+            throw thrown;
+        })));
+        IllegalStateException wrapped = assertThrows(IllegalStateException.class, () -> executor.call(1L, () -> {
+            throw new IOException("disco");
+        }));
+        assertTrue(wrapped.getCause() instanceof IOException);
+        assertEquals(2, (long) executor.call(1L, () -> 2));
+    }
+}
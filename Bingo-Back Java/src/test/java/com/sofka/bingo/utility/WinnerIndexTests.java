@@ -0,0 +1,89 @@
+package com.sofka.bingo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WinnerIndexTests {
+
+    /**
+     * Tablero en orden de filas cuya casilla (fila, columna) es {@code columna * 15 + offset + (fila - skew * columna) mod 5 + 1}.
+     * Con {@code card(0, 0)} la fila 0 es 1, 16, 31, 46, 61; con {@code card(0, 1)} esos números quedan en la diagonal.
+     */
+    private static int[] card(int offset, int skew) {
+        int[] cells = new int[BoardMask.CELLS];
+        for (int row = 0; row < BoardMask.SIZE; row++) {
+            for (int column = 0; column < BoardMask.SIZE; column++) {
+                cells[row * BoardMask.SIZE + column] = column * 15 + offset
+                        + Math.floorMod(row - skew * column, BoardMask.SIZE) + 1;
+            }
+        }
+        return cells;
+    }
+
+    private static List<String> drawAll(WinnerIndex index, int... numbers) {
+        List<String> last = List.of();
+        for (int number : numbers) {
+            last = index.onDraw(number);
+        }
+        return last;
+    }
+
+    @Test
+    void rowCompletesOnItsLastBall() {
+        WinnerIndex index = new WinnerIndex();
+        index.addBoard(1L, "ana", card(0, 0));
+
+        assertTrue(drawAll(index, 1, 16, 31, 46).isEmpty());
+        assertEquals(List.of("ana"), index.onDraw(61));
+        assertEquals(List.of("ana"), index.getWinners());
+    }
+
+    @Test
+    void columnCompletesOnItsLastBall() {
+        WinnerIndex index = new WinnerIndex();
+        index.addBoard(1L, "ana", card(0, 0));
+
+        assertTrue(drawAll(index, 1, 2, 3, 4).isEmpty());
+        assertEquals(List.of("ana"), index.onDraw(5));
+    }
+
+    @Test
+    void bothDiagonalsComplete() {
+        WinnerIndex main = new WinnerIndex();
+        main.addBoard(1L, "ana", card(0, 0));
+        assertTrue(drawAll(main, 1, 17, 33, 49).isEmpty());
+        assertEquals(List.of("ana"), main.onDraw(65));
+
+        WinnerIndex anti = new WinnerIndex();
+        anti.addBoard(1L, "ana", card(0, 0));
+        assertTrue(drawAll(anti, 61, 47, 33, 19).isEmpty());
+        assertEquals(List.of("ana"), anti.onDraw(5));
+    }
+
+    @Test
+    void boardsCompletingOnTheSameBallTieInRegistrationOrder() {
+        WinnerIndex index = new WinnerIndex();
+        index.addBoard(1L, "ana", card(0, 0));
+        index.addBoard(2L, "luis", card(5, 0));
+        index.addBoard(3L, "eva", card(0, 1));
+
+        assertTrue(drawAll(index, 1, 16, 31, 46).isEmpty());
+        assertEquals(List.of("ana", "eva"), index.onDraw(61));
+        assertTrue(index.onDraw(2).isEmpty());
+        assertEquals(List.of("ana", "eva"), index.getWinners());
+    }
+
+    @Test
+    void lateBoardIsMarkedWithTheBallsAlreadyDrawn() {
+        WinnerIndex index = new WinnerIndex();
+        drawAll(index, 1, 2, 3, 4, 5);
+
+        assertEquals(List.of("ana"), index.addBoard(1L, "ana", card(0, 0)));
+        assertTrue(index.addBoard(1L, "ana", card(0, 0)).isEmpty());
+        assertEquals(List.of("ana"), index.getWinners());
+    }
+}
@@ -41,56 +41,17 @@ socket.connect()
 
 /**
  * Inicia el juego.
- * Obtiene el nombre de usuario del elemento con ID "info" y llama a la función game del objeto socket.
- * A continuación, llama a la función initGame para inicializar el juego.
+ * Llama a la función game del objeto socket. El jugador entra al juego al pedir su tablero.
  */
 function main () {
-    let user = $('#info').val();
     socket.game()
-    initGame(user)
-}
-
-/**
- * Inicializa el juego.
- * Obtiene el ID del jugador correspondiente al nombre de usuario recibido como parámetro.
- * Si el jugador ya existe en SQL, actualiza su estado a 7. Si no existe, crea un nuevo registro para el jugador.
- * @param {string} user - Nombre de usuario del jugador.
- */
-function initGame(user) {
-    getGamerByUser(user)
-        .then(id => {
-            if (id) {
-                console.log("El usuario ya existe en SQL, se actualiza el estado");
-                updateGamerByUser(id, 7);
-                gamerId = id;
-            } else {
-                console.log("Se crea un nuevo Gamer en SQl");
-                createGamer(user);
-            }
-        })
-        .catch(err => console.log(err));
-
-}
-
-/**
- * Muestra un nuevo tablero.
- * Obtiene el ID del jugador correspondiente al nombre de usuario recibido y llama a la función
- * createBoard para crear un nuevo tablero para el jugador.
- */
-function showNewBoard(){
-    let user = $('#info').val();
-    getGamerByUser(user)
-        .then(id => {
-            createBoard(id);
-        })
-        .catch(err => console.log(err));
 }
 
 /**
  * Esta función se ejecuta al cargar la página y agrega un controlador de eventos al botón "Obtener".
  * Oculta el contenido de la tabla y el botón "Obtener" al cargar la página.
- * Cuando se hace clic en el botón "Obtener", muestra el contenido de la tabla y llama a la función "showNewBoard"
- * para generar una nueva tabla de juego. También llama a la función "updateGamerInGame" para actualizar el estado del jugador en el juego.
+ * Cuando se hace clic en el botón "Obtener", muestra el contenido de la tabla y llama a la función "joinGame"
+ * para entrar al juego y recibir el tablero en una sola solicitud.
  */
 $(document).ready(function() {
     // Ocultar el contenido de la tabla cuando se carga la página
@@ -103,68 +64,21 @@ $(document).ready(function() {
         $(".table").show();
         $(this).hide();
 
-        // Llamar a la función "showNewBoard" para generar una nueva tabla de juego
-        showNewBoard();
+        // Entrar al juego con el usuario y mostrar el tablero asignado
+        let user = $('#info').val();
         let idGame= $("#game").text();
-        console.log("dentro de board idGame: "+ idGame+ ", idGamer: "+ gamerId)
-        updateGamerInGame(gamerId,idGame)
+        joinGame(user, idGame);
     });
 });
 
 /**
- * Actualiza el estado de un gamer en la base de datos por su id
- * @param {number} id - El ID del gamer a actualizar
- * @param {number} status - El nuevo estado del gamer
- */
-function updateGamerByUser(id, status){
-    let url = 'http://localhost:8080/gamer/update/status/' + id;
-    console.log(url);
-    fetch(url, {
-        method:'PATCH',
-        headers: {
-            "Content-type": "application/json"
-        },
-        body: JSON.stringify({
-            statusGamer: {idStatus: status}
-        })
-    })
-        .then(data => data.json())
-        .catch(err => {
-            console.log(err)
-        });
-
-}
-
-/**
- * Actualiza la tabla de juego de un gamer en la base de datos por su id
- * @param {number} id - El ID del gamer a actualizar
- * @param {number} board - La nueva tabla de juego del gamer
- */
-function updateGamerBoard(id, board){
-    let url = 'http://localhost:8080/gamer/update/board/' + id;
-    console.log(url);
-    fetch(url, {
-        method:'PATCH',
-        headers: {
-            "Content-type": "application/json"
-        },
-        body: JSON.stringify({
-            board: {idBoard: board}
-        })
-    })
-        .then(data => data.json())
-        .catch(err => {
-            console.log(err)
-        });
-
-}
-
-/**
- * Crea un objeto Gamer en el servidor y asigna un ID de gamer a la variable global gamerId.
- * @param {string} user - El nombre de usuario del Gamer.
+ * Une el jugador al juego en el servidor: lo busca o lo crea, le asigna un tablero, lo relaciona con el juego
+ * y actualiza su estado en una sola solicitud. Luego muestra el tablero recibido.
+ * @param {string} user - El nombre de usuario del jugador.
+ * @param {number} idGame - El ID del juego al que entra el jugador.
  */
-function createGamer (user){
-    fetch('http://localhost:8080/gamer/save', {
+function joinGame(user, idGame){
+    fetch('http://localhost:8080/game/' + idGame + '/join', {
         method: 'POST',
         headers: {
             "Content-type": "application/json"
@@ -176,57 +90,53 @@ function createGamer (user){
         .then(response => response.json())
         .then(json => {
             gamerId = json.idGamer;
+            myBoard = json.board;
+            paintBoard(myBoard);
+            paintActiveBoard(myBoard);
+            startHeartbeat();
+            console.log("El jugador entra al juego con su tablero");
         })
-        .catch(error => console.error(error))
+        .catch(err => console.log(err));
 }
 
 /**
- * Crea un objeto Board en el servidor y actualiza el objeto Gamer relacionado con el ID de Gamer especificado.
- * @param {number} ID - El ID de Gamer al que se le asignará la nueva tabla.
+ * Envía un latido del jugador cada 10 segundos para que el servidor lo mantenga en línea.
+ * Si el servidor ya no lo tiene en línea, el jugador vuelve a quedar "En espera".
+ * Al cerrar la página el jugador pasa a "Desconectado".
  */
-function createBoard(ID){
-        fetch('http://localhost:8080/board/save', {
-            method:'POST',
-            headers: {
-                "Content-type": "application/json"
-            },
-            body: JSON.stringify({
-                gamerId:ID
-            })
+function startHeartbeat(){
+    setInterval(() => {
+        fetch('http://localhost:8080/gamer/' + gamerId + '/heartbeat', {
+            method: 'PATCH'
         })
             .then(response => {
-                return response.json()
-            })
-            .then(json => {
-                updateGamerBoard(ID, json.idBoard);
-                getBoard(json.idBoard);
-                console.log("Se crea la tabla, se relaciona con gamer y se muestra");
-                console.log(json);
+                if (response.status === 404) {
+                    updateGamerStatus(gamerId, 7, false);
+                }
             })
             .catch(err => console.log(err));
+    }, 10000);
+    window.addEventListener('pagehide', () => updateGamerStatus(gamerId, 11, true));
 }
 
 /**
- * Obtiene los datos de una tabla de juegos desde el servidor y la muestra en la interfaz gráfica.
- * @param {number} id - El ID de la tabla de juegos a obtener.
- * @returns {void}
+ * Actualiza el estado de un gamer en el servidor por su id.
+ * @param {number} id - El ID del gamer a actualizar
+ * @param {number} status - El nuevo estado del gamer
+ * @param {boolean} keepalive - Verdadero si la solicitud debe terminar aunque se cierre la página
  */
-function getBoard(id){
-    const url = 'http://localhost:8080/board/get/'+id
-    fetch(url, {
-        method:'GET',
+function updateGamerStatus(id, status, keepalive){
+    fetch('http://localhost:8080/gamer/update/status/' + id, {
+        method: 'PATCH',
+        keepalive: keepalive,
         headers: {
             "Content-type": "application/json"
-        }
-    })
-        .then(response => response.json())
-        .then(array => {
-            myBoard = array;
-            paintBoard(array);
-            paintActiveBoard(array);
+        },
+        body: JSON.stringify({
+            statusGamer: {idStatus: status}
         })
+    })
         .catch(err => console.log(err));
-
 }
 
 /**
@@ -364,57 +274,6 @@ function paintBoard(items){
 
 }
 
-/**
- * Recupera del servidor el ID de jugador asociado al usuario dado.
- * @param {string} user - El nombre de usuario a buscar.
- * @returns {Promise<number|null>} Una promesa que devuelve el ID de jugador asociado con el usuario dado, o null si el usuario no existe.
- */
-function getGamerByUser(user){
-    let url= 'http://localhost:8080/gamer/get/user/'+ user
-    return fetch(url, {
-        method: 'GET',
-        headers: {
-            "Content-type": "application/json"
-        }
-    })
-        .then(response => response.json())
-        .then(json => {
-            console.log("este es el id del user: " + json.idGamer)
-            if (json) {
-                return json.idGamer;
-            } else {
-                return null;
-            }
-        })
-        .catch(error => console.error(error))
-}
-
-/**
- * Actualiza el jugador con el ID dado para asociarlo con el juego especificado en el servidor.
- * @param {number} idGamer - El ID del jugador a actualizar.
- * @param {number} gameId - El ID del juego a asociar con el jugador.
- */
-function updateGamerInGame(idGamer, gameId) {
-    let url = 'http://localhost:8080/gamer/update/game/' + idGamer;
-    fetch(url, {
-        method: 'PATCH',
-        headers: {
-            "Content-type": "application/json"
-        },
-        body: JSON.stringify({
-            game: {idGame: gameId}
-        })
-    })
-        .then(data => data.json())
-        .then(json => {
-            console.log("Se relaciona el jugador con el juego")
-            console.log(json)
-        })
-        .catch(err => {
-            console.log(err)
-        });
-}
-
 /**
  * Renderiza el tablero de bingo con números continuos en su respectiva columna
  */
@@ -7,19 +7,17 @@ const { io } = require('../app');
  * @author Wendy Arcila
  */
 
-let interval = 0;
-let tiempoRestante = 10;
 let gamers = [];
 let user;
 let gameId;
-let rotationCount = 1;
+let events = null;
 
 /**
  * Maneja la conexión de un nuevo cliente en el servidor
  * @param {Socket} socket - El objeto Socket para el cliente conectado
  * @fires gamers - Emite un evento con la lista actualizada de usuarios
  * @listens disconnect - Maneja la desconexión de un cliente
- * @listens ready - Llama a la función timer y a la función game
+ * @listens ready - Crea e inicia el juego y atiende las reclamaciones del cliente
  */
 io.on('connection', (socket) => {
     console.log('Nuevo cliente conectado');
@@ -28,6 +26,7 @@ io.on('connection', (socket) => {
       .then(data => {
           console.log("gamers name: "+ data.name)
           user = data.name;
+          socket.data.user = data.name;
           gamers.push(data.name)
           io.emit('gamers', gamers);
       });
@@ -39,19 +38,18 @@ io.on('connection', (socket) => {
       gamers =  gamers.filter(gamer => gamer !== user);
       io.emit('gamers', gamers);
 
-        // Si no hay más clientes conectados, detenemos el intervalo de tiempo
-        if (io.engine.clientsCount === 0) {
-            clearInterval(interval);
-            interval = null;
-            tiempoRestante = 10;
+        // Si no hay más clientes conectados, dejamos de seguir los eventos del juego
+        if (io.engine.clientsCount === 0 && events) {
+            events.abort();
+            events = null;
         }
     });
 
-    // Llamamos a la función timer después de que el cliente se ha conectado
+    // Creamos e iniciamos el juego después de que el cliente se ha conectado
     socket.on('ready', () => {
         console.log("ingresa a la ready");
-        timer(socket);
         game();
+        ballot(socket);
     });
 });
 
@@ -75,8 +73,9 @@ function gamer(socket) {
 }
 
 /**
- * Comprueba si hay un solo cliente conectado. Si es así, crea un juego y envía
- * un mensaje a todos los clientes cada segundo con el identificador del juego.
+ * Comprueba si hay un solo cliente conectado. Si es así, crea un juego, lo inicia en el servidor
+ * y reenvía a los clientes los eventos del juego. El conteo regresivo y la sacada de balotas
+ * corren en el servidor de Java; este servidor solo los reenvía.
  * Si ya hay un juego generado, muestra un mensaje en la consola.
  */
 function game(){
@@ -84,12 +83,9 @@ function game(){
         createGame()
             .then(data => {
                 gameId = data;
-                setInterval(() =>{
-                    if(tiempoRestante > 0){
-                        io.emit('newGame', {data: data});
-                    }
-                }, 1000)
+                return startGame(data);
             })
+            .then(() => followGame(gameId))
             .catch(error => {
                 console.error(error);
             });
@@ -100,32 +96,98 @@ function game(){
 }
 
 /**
- * Comprueba si hay un solo cliente conectado. Si es así, inicia un temporizador
- * descendente de 1 segundo y envía un mensaje a todos los clientes cada segundo
- * con el tiempo restante en formato de minutos y segundos. Cuando el temporizador
- * llega a cero, detiene el temporizador y llama a la función ballot().
- * @param {object} socket - El socket del cliente que ha comenzado el temporizador.
+ * Inicia en el servidor el ciclo del juego: el conteo regresivo y la sacada de balotas.
+ * @param {string} idGame - El ID del juego
+ * @returns {Promise<void>} Se resuelve cuando el juego quedó iniciado
+ * @throws {Error} Si el servidor no inició el juego
  */
-function timer(socket){
-    if(io.engine.clientsCount === 1) {
-        console.log("ingresa a la función")
-        interval = setInterval(() => {
-            let minutos = Math.floor(tiempoRestante / 60);
-            let segundos = tiempoRestante % 60;
+function startGame(idGame){
+    return fetch('http://localhost:8080/game/' + idGame + '/start', {
+        method: 'POST'
+    })
+        .then(response => {
+            if (!response.ok) {
+                throw new Error("No se pudo iniciar el juego " + idGame + ": " + response.status);
+            }
+            console.log("Juego iniciado: " + idGame);
+        });
+}
 
-            minutos = minutos < 10 ? "0" + minutos : minutos;
-            segundos = segundos < 10 ? "0" + segundos : segundos;
+/**
+ * Sigue los eventos del juego (Server-Sent Events) y los reenvía a los clientes:
+ * el conteo regresivo como 'timerOn' y 'newGame', el inicio de las balotas como 'timerOff',
+ * cada balota como 'ballot' y los ganadores como 'gotWinner'.
+ * @param {string} idGame - El ID del juego
+ * @returns {Promise<void>} Se resuelve cuando se cierra la conexión
+ */
+async function followGame(idGame){
+    events = new AbortController();
+    let countingDown = true;
+    const response = await fetch('http://localhost:8080/game/' + idGame + '/events', {
+        headers: {"Accept": "text/event-stream"},
+        signal: events.signal
+    });
+    const decoder = new TextDecoder();
+    let buffer = '';
+    try {
+        for await (const chunk of response.body) {
+            buffer += decoder.decode(chunk, {stream: true});
+            let end;
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+                const block = buffer.slice(0, end);
+                buffer = buffer.slice(end + 2);
+                let name = 'message';
+                let data = '';
+                block.split('\n').forEach(line => {
+                    if (line.startsWith('event:')) {
+                        name = line.slice(6).trim();
+                    } else if (line.startsWith('data:')) {
+                        data += line.slice(5);
+                    }
+                });
+                if (data) {
+                    countingDown = relay(name, JSON.parse(data), countingDown);
+                }
+            }
+        }
+    } catch (error) {
+        if (error.name !== 'AbortError') {
+            console.error(error);
+        }
+    }
+}
 
+/**
+ * Reenvía a los clientes un evento del juego.
+ * @param {string} name - El nombre del evento
+ * @param {Object} data - Los datos del evento
+ * @param {boolean} countingDown - Verdadero mientras corre el conteo regresivo
+ * @returns {boolean} Verdadero si el conteo regresivo sigue corriendo
+ */
+function relay(name, data, countingDown){
+    switch (name) {
+        case 'timer': {
+            const minutos = data.minutos < 10 ? "0" + data.minutos : data.minutos;
+            const segundos = data.segundos < 10 ? "0" + data.segundos : data.segundos;
+            io.emit('newGame', {data: gameId});
             io.emit('timerOn', {minutos, segundos});
-
-            tiempoRestante--;
-
-            if (tiempoRestante < 0) {
-                clearInterval(interval);
-                io.emit('timerOff')
-                ballot(socket);
+            return true;
+        }
+        case 'draw':
+            if (countingDown) {
+                io.emit('timerOff');
             }
-        }, 1000);
+            io.emit('ballot', {
+                num: data.num,
+                lett: data.lett,
+                count: data.count
+            });
+            return false;
+        case 'winner':
+            io.emit('gotWinner');
+            return countingDown;
+        default:
+            return countingDown;
     }
 }
 
@@ -153,132 +215,58 @@ function createGame (){
 
 
 /**
- * Crea un nuevo movimiento para un juego específico.
- * @param {string} idGame - El ID del juego
- * @returns {Promise<Object>} La información relacionada con el movimiento creado
+ * Envía al servidor la reclamación de ganador del usuario para que la verifique contra su tablero.
+ * Si la reclamación es válida, el servidor registra al usuario como ganador del juego.
+ * @param {string} claimant - El nombre de usuario que reclama
+ * @returns {Promise<boolean>} Verdadero si la reclamación es válida
  * @throws {Error} Si ocurre un error durante la solicitud HTTP
  */
-function createMove(idGame){
-    return fetch('http://localhost:8080/move/save', {
+function claimWinner(claimant){
+    let url = 'http://localhost:8080/game/' + gameId + '/claim';
+    return fetch (url, {
         method: 'POST',
         headers: {
             "Content-type": "application/json"
         },
         body: JSON.stringify({
-            idGame: idGame
+            user: claimant
         })
     })
-        .then(response => response.json())
-        .then(json => {
-            console.log(json)
-            return json
-        })
-        .catch(error => console.error(error))
-}
-
-/**
- * Actualiza el ganador del juego con el usuario actual.
- * @throws {Error} Si ocurre un error durante la solicitud HTTP
- */
-function updateWinnerInGame(){
-    let url = 'http://localhost:8080/game/update/winner/' + gameId;
-    fetch (url, {
-        method: 'PATCH',
-        headers: {
-            "Content-type": "application/json"
-        },
-        body: JSON.stringify({
-            winner: user
-        })
-    })
-        .then(data => data.json())
-        .then(json => {
-            console.log("Se relaciona el jugador con el juego")
-            console.log(json)
+        .then(response => {
+            console.log("Reclamación de " + claimant + ": " + response.status)
+            return response.ok;
         })
         .catch(err => {
             console.log(err)
+            return false;
         });
 }
 
 /**
- * Inicia el proceso generar las balotas del juego.
+ * Atiende las reclamaciones de ganador de un cliente. Las balotas las saca el servidor; cuando un
+ * cliente canta bingo, se pide a todos que reclamen y el servidor pausa el juego mientras las verifica.
  * @param {Object} socket - Socket utilizado para la comunicación.
  */
 function ballot(socket){
-    let flag = true;
-    let intervalBallot;
-    let allNumbers = [];
 
     //Función que recibe el cambio de la bandera de votación.
     socket.on ('flagBallot', (data)=>{
-        flag = data.flag;
-        io.emit('updateFlag', {flag});
-    });
-
-    //Función que cambia la bandera de la balota para todos los sockets.
-    socket.on('changeAllFlags', () =>{
-        flag = false;
-    })
-
-    //Función que se ejecuta cuando no hay ganador.
-    socket.on('noWinner', () =>{
-        flag = true;
-        startInterval();
+        io.emit('updateFlag', {flag: data.flag});
+        if (!data.flag) {
+            io.emit('isWinner');
+        }
     });
 
-    //Función que se ejecuta cuando termina el juego.
-    socket.on('gameOver', () =>{
-        io.emit('gotWinner');
-    })
-
-    //Función que determina si un socket es el ganador.
+    //Función que determina si un socket es el ganador, verificando la reclamación en el servidor.
     socket.on('amITheWinner', () =>{
-       setTimeout(() => {
-           if(flag){
-               socket.emit('expelled');
-           }else {
-               socket.emit('yourWinner');
-               updateWinnerInGame();
-           }
-       }, 5000);
-    });
-
-    //Función que crea un nuevo movimiento en el juego.
-    const createNewMove = async () => {
-        let {number, letter} = await createMove(gameId);
-        if (!allNumbers.includes(number)) {
-            allNumbers.push(number);
-            io.emit('ballot', {
-                num: number,
-                lett: letter,
-                count: rotationCount
-            });
-            rotationCount++;
-            return true;
-        } else {
-            return false;
-        }
-    };
-
-    //Función que inicia el intervalo de balotas.
-    const startInterval = () => {
-        intervalBallot = setInterval(async () => {
-            if (flag) {
-                const isNewMoveCreated = await createNewMove();
-                if (!isNewMoveCreated) {
-                    clearInterval(intervalBallot);
-                    startInterval();
+        claimWinner(socket.data.user)
+            .then(isWinner => {
+                if(isWinner){
+                    socket.emit('yourWinner');
+                }else {
+                    socket.emit('expelled');
                 }
-            } else {
-                clearInterval(intervalBallot);
-                io.emit('isWinner');
-
-            }
-        }, 3000);
-    };
-
-    startInterval();
+            });
+    });
 }
 
-